@@ -0,0 +1,78 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.BatchDiffService.BatchResult;
+import io.github.chetana.openapi.diff.BatchDiffService.ContractPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Batch throughput by thread count: pairs per second should grow close to linearly up to the
+ * number of cores. Pairs share a handful of references, as in a release-wide check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"32"})
+    public int pairs;
+
+    @Param({"300"})
+    public int operations;
+
+    private Path dir;
+    private List<ContractPair> manifest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("batch-bench");
+        int references = 4;
+        for (int r = 0; r < references; r++) {
+            Files.writeString(dir.resolve("reference" + r + ".json"), SyntheticSpecs.spec(operations + r, 2, false));
+        }
+        manifest = new ArrayList<>();
+        for (int p = 0; p < pairs; p++) {
+            int r = p % references;
+            Path generated = dir.resolve("generated" + p + ".json");
+            Files.writeString(generated, SyntheticSpecs.spec(operations + r, 2, true));
+            manifest.add(new ContractPair("pair" + p, dir.resolve("reference" + r + ".json").toString(), generated.toString()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    // One operation = one full batch; multiply the score by 'pairs' for pairs per second
+    @Benchmark
+    public BatchResult batch() throws InterruptedException {
+        return new BatchDiffService(new OpenApiDiffService()).run(manifest, threads);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse-to-diff latency and allocation of the former pipeline, which serialized the parsed
+ * models back to JSON for {@code OpenApiCompare.fromContents} to parse again, against handing
+ * the parsed models to {@code OpenApiCompare.fromSpecifications}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComparePathBenchmark {
+
+    @Param({"100", "1000"})
+    public int operations;
+
+    @Param({"2"})
+    public int schemaDepth;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+    private SyntheticSpecs.Pair specs;
+
+    @Setup
+    public void setUp() {
+        specs = SyntheticSpecs.pair(operations, schemaDepth);
+    }
+
+    @Benchmark
+    public ChangedOpenApi jsonRoundTrip() {
+        OpenAPI[] models = parseAndFilter();
+        return OpenApiCompare.fromContents(Json.pretty(models[0]), Json.pretty(models[1]));
+    }
+
+    @Benchmark
+    public ChangedOpenApi parsedModels() {
+        OpenAPI[] models = parseAndFilter();
+        return OpenApiCompare.fromSpecifications(models[0], models[1]);
+    }
+
+    private OpenAPI[] parseAndFilter() {
+        OpenAPI reference = service.parseContents(specs.reference());
+        OpenAPI generated = service.parseContents(specs.generated());
+        service.normalizeAllDescriptions(reference);
+        service.normalizeAllDescriptions(generated);
+        OpenAPI filtered = service.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+        return new OpenAPI[] {reference, filtered};
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fail-fast gate against a full compare, on a breaking pair (with 40 operations, none is
+ * missing and the gate has to diff) and on a compatible one (the reference against itself).
+ * Setup checks that the gate gives the breaking verdict of the full compare on both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GateBenchmark {
+
+    private static final CompareOptions FULL = new CompareOptions(false, false);
+    private static final CompareOptions GATE = new CompareOptions(false, false, false, 1);
+
+    @Param({"40", "1000", "10000"})
+    public int operations;
+
+    @Param({"3"})
+    public int schemaDepth;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+
+    private SyntheticSpecs.Pair specs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        specs = SyntheticSpecs.pair(operations, schemaDepth);
+        checkVerdict(specs.reference(), specs.generated());
+        checkVerdict(specs.reference(), specs.reference());
+    }
+
+    private void checkVerdict(String reference, String generated) throws Exception {
+        boolean full = service.compare(reference, generated, FULL).isBreaking();
+        boolean gate = service.compare(reference, generated, GATE).isBreaking();
+        if (full != gate) {
+            throw new IllegalStateException("Gate verdict " + gate + " differs from the full compare " + full + " on " + operations + " operations");
+        }
+    }
+
+    @Benchmark
+    public DiffResult fullCompare() throws Exception {
+        return service.compare(specs.reference(), specs.generated(), FULL);
+    }
+
+    @Benchmark
+    public DiffResult gateBreaking() throws Exception {
+        return service.compare(specs.reference(), specs.generated(), GATE);
+    }
+
+    @Benchmark
+    public DiffResult gateCompatible() throws Exception {
+        return service.compare(specs.reference(), specs.reference(), GATE);
+    }
+}
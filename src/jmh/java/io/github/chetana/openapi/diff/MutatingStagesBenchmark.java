@@ -0,0 +1,84 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stages that mutate the models they are given: every invocation works on fresh copies.
+ * The copy is excluded from the timings, but {@code -prof gc} counts its allocations, so
+ * {@link #copyOnly()} gives the baseline to subtract from the allocation figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutatingStagesBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int operations;
+
+    @Param({"2"})
+    public int schemaDepth;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+
+    private OpenAPI rawReference;
+    private OpenAPI reference;
+    private OpenAPI filtered;
+
+    private OpenAPI rawReferenceCopy;
+    private OpenAPI referenceCopy;
+    private OpenAPI filteredCopy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSpecs.Pair specs = SyntheticSpecs.pair(operations, schemaDepth);
+        rawReference = service.parseContents(specs.reference());
+        reference = SpecSlicer.copy(rawReference);
+        OpenAPI generated = service.parseContents(specs.generated());
+        service.normalizeAllDescriptions(reference);
+        service.normalizeAllDescriptions(generated);
+        filtered = service.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+    }
+
+    @Setup(Level.Invocation)
+    public void copyModels() {
+        rawReferenceCopy = SpecSlicer.copy(rawReference);
+        referenceCopy = SpecSlicer.copy(reference);
+        filteredCopy = SpecSlicer.copy(filtered);
+    }
+
+    @Benchmark
+    public OpenAPI copyOnly() {
+        return filteredCopy;
+    }
+
+    @Benchmark
+    public OpenAPI normalizeAllDescriptions() {
+        service.normalizeAllDescriptions(rawReferenceCopy);
+        return rawReferenceCopy;
+    }
+
+    @Benchmark
+    public ChangedOpenApi openApiCompare() {
+        return OpenApiCompare.fromSpecifications(referenceCopy, filteredCopy);
+    }
+}
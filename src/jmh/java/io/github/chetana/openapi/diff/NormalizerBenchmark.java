@@ -0,0 +1,75 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The former regex normalization against {@link DescriptionNormalizer#collapseWhitespace} over
+ * every description and summary of a spec. Pass {@code -p specFile=/path/to/spec.(json|yaml)}
+ * to measure a real contract instead of the synthetic one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NormalizerBenchmark {
+
+    @Param({"10000"})
+    public int operations;
+
+    @Param({""})
+    public String specFile;
+
+    private List<String> texts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonNode root;
+        if (specFile.isEmpty()) {
+            root = Json.mapper().readTree(SyntheticSpecs.spec(operations, 2, true));
+        } else {
+            String content = Files.readString(Path.of(specFile));
+            root = (content.trim().startsWith("{") ? Json.mapper() : Yaml.mapper()).readTree(content);
+        }
+        texts = new ArrayList<>();
+        for (String field : List.of("description", "summary")) {
+            root.findValues(field).stream().filter(JsonNode::isTextual).map(JsonNode::asText).forEach(texts::add);
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(text.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    @Benchmark
+    public void collapseWhitespace(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(DescriptionNormalizer.collapseWhitespace(text));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+import org.openapitools.openapidiff.core.output.ConsoleRender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per stage of {@link OpenApiDiffService#compare}, plus the end-to-end compare.
+ * The two stages that mutate their input live in {@link MutatingStagesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int operations;
+
+    @Param({"2"})
+    public int schemaDepth;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+
+    private SyntheticSpecs.Pair specs;
+    private OpenAPI reference;
+    private OpenAPI generated;
+    private ChangedOpenApi diff;
+    private DiffResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        specs = SyntheticSpecs.pair(operations, schemaDepth);
+        reference = service.parseContents(specs.reference());
+        generated = service.parseContents(specs.generated());
+        service.normalizeAllDescriptions(reference);
+        service.normalizeAllDescriptions(generated);
+        OpenAPI filtered = service.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+        diff = OpenApiCompare.fromSpecifications(SpecSlicer.copy(reference), filtered);
+        result = service.compare(specs.reference(), specs.generated(), new CompareOptions(false, false));
+    }
+
+    @Benchmark
+    public OpenAPI parse() {
+        return service.parseContents(specs.reference());
+    }
+
+    // What a reference cache hit used to cost instead of parse(): a deep copy of the cached model
+    @Benchmark
+    public OpenAPI copyReference() {
+        return SpecSlicer.copy(reference);
+    }
+
+    @Benchmark
+    public OpenAPI filterGeneratedOpenApi() {
+        return service.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+    }
+
+    @Benchmark
+    public List<OpenApiDiffService.StructureChange> extractStructureChanges() {
+        return service.extractStructureChanges(diff);
+    }
+
+    @Benchmark
+    public List<OpenApiDiffService.MetadataChange> extractMetadataChanges() {
+        return service.extractMetadataChanges(diff);
+    }
+
+    // The report every compare used to build, whether or not it was displayed
+    @Benchmark
+    public String renderConsoleReport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ConsoleRender().render(diff, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void exportToCsv() throws Exception {
+        service.export(result, ReportFormat.CSV, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportToMarkdown() throws Exception {
+        service.export(result, ReportFormat.MARKDOWN, OutputStream.nullOutputStream());
+    }
+
+    // The reference model comes from the service's cache, as in repeated CI runs
+    @Benchmark
+    public DiffResult compareEndToEnd() throws Exception {
+        return service.compare(specs.reference(), specs.generated(), new CompareOptions(false, false));
+    }
+
+    // Specs from 200 operations are split into shards diffed on every core
+    @Benchmark
+    public DiffResult compareEndToEndSharded() throws Exception {
+        return service.compare(specs.reference(), specs.generated(), new CompareOptions(false, true));
+    }
+
+    @Benchmark
+    public DiffResult compareEndToEndColdReference() throws Exception {
+        return new OpenApiDiffService().compare(specs.reference(), specs.generated(), new CompareOptions(false, false));
+    }
+}
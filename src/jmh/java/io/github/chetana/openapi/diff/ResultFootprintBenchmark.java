@@ -0,0 +1,125 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Heap retained by a {@link DiffResult}, per 10,000 changes, in its compact form (detail nodes,
+ * shared strings) against the former shape, where every detail line and field label was its
+ * own string. Retained sizes are printed once per fork; the benchmarks measure extraction and
+ * the rendering that now formats the lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultFootprintBenchmark {
+
+    @Param({"10000"})
+    public int operations;
+
+    @Param({"3"})
+    public int schemaDepth;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+
+    private ChangedOpenApi diff;
+    private DiffResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSpecs.Pair specs = SyntheticSpecs.pair(operations, schemaDepth);
+        OpenAPI reference = service.parseContents(specs.reference());
+        OpenAPI generated = service.parseContents(specs.generated());
+        service.normalizeAllDescriptions(reference);
+        service.normalizeAllDescriptions(generated);
+        OpenAPI filtered = service.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+        diff = OpenApiCompare.fromSpecifications(reference, filtered);
+        result = extract();
+
+        int changes = changeCount(result);
+        long compact = retainedBytes(this::extract);
+        long former = retainedBytes(() -> formerShape(extract()));
+        System.out.printf("%n%d changes (%d detail lines), retained per 10k changes: compact %,d bytes, former %,d bytes%n",
+                changes, detailCount(result), compact * 10_000 / changes, former * 10_000 / changes);
+    }
+
+    @Benchmark
+    public DiffResult extract() {
+        return new DiffResult(service.extractMetadataChanges(diff), service.extractStructureChanges(diff), diff.isDifferent(), List.of(), List.of());
+    }
+
+    @Benchmark
+    public void renderMarkdown() throws Exception {
+        service.export(result, ReportFormat.MARKDOWN, OutputStream.nullOutputStream());
+    }
+
+    // What a result held before: a formatted string per detail line and per field label
+    private static DiffResult formerShape(DiffResult result) {
+        List<StructureChange> structureChanges = new ArrayList<>();
+        for (StructureChange change : result.structureChanges()) {
+            List<String> details = new ArrayList<>(change.details().size());
+            change.details().forEach(details::add);
+            structureChanges.add(new StructureChange(change.method(), change.path(), change.changeType(), details, change.isBreaking()));
+        }
+        List<MetadataChange> metadataChanges = new ArrayList<>();
+        for (MetadataChange change : result.metadataChanges()) {
+            metadataChanges.add(new MetadataChange(change.path(), change.method(), new String(change.field()),
+                    change.designFirstValue(), change.generatedValue()));
+        }
+        return new DiffResult(metadataChanges, structureChanges, result.isDifferent(), result.missingOperationIds(), result.duplicateOperationIds());
+    }
+
+    private static long retainedBytes(Supplier<Object> build) {
+        long before = usedHeapAfterGc();
+        Object kept = build.get();
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(kept);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static int changeCount(DiffResult result) {
+        return result.structureChanges().size() + result.metadataChanges().size();
+    }
+
+    private static int detailCount(DiffResult result) {
+        int details = 0;
+        for (StructureChange change : result.structureChanges()) {
+            details += change.details().size();
+        }
+        return details;
+    }
+}
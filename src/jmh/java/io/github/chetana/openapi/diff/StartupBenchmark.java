@@ -0,0 +1,98 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first compare in a fresh JVM: one measurement per fork, nothing warmed up by JMH.
+ * {@code libraryFirstCompare} builds the service without Spring, as the CLI does;
+ * {@code headlessFirstRequest} starts the headless application and posts the pair to
+ * {@code /api/diff}, as a Cloud Run cold start serving a CI call. {@code warmup} toggles the
+ * startup warm-up. The pair is generated during setup with Jackson, whose core classes are
+ * therefore loaded before the measurement in every variant. Pass
+ * {@code -jvmArgsAppend -XX:SharedArchiveFile=app.jsa} to measure with a CDS archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean warmup;
+
+    @Param({"100"})
+    public int operations;
+
+    private String reference;
+    private String generated;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSpecs.Pair specs = SyntheticSpecs.pair(operations, 2);
+        reference = specs.reference();
+        generated = specs.generated();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopContext() {
+        if (context != null) context.close();
+        context = null;
+    }
+
+    @Benchmark
+    public OpenApiDiffService.DiffResult libraryFirstCompare() throws Exception {
+        OpenApiDiffService service = new OpenApiDiffService();
+        if (warmup) StartupWarmup.warm(service);
+        return service.compare(reference, generated);
+    }
+
+    @Benchmark
+    public String headlessFirstRequest() throws Exception {
+        context = new SpringApplicationBuilder(OpenApiDiffApplication.class)
+                .profiles("headless")
+                .properties(Map.of(
+                        "server.port", "0",
+                        "openapi-diff.history.enabled", "false",
+                        "openapi-diff.warmup.enabled", String.valueOf(warmup)))
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        String body = new ObjectMapper().writeValueAsString(new DiffController.CompareRequest(reference, generated));
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/diff"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Compare failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates reference/generated contract pairs of a given size for the benchmarks.
+ * The generated side differs from the reference in a deterministic way: reworded and
+ * re-indented descriptions, missing operations, added properties and a changed shared schema.
+ */
+final class SyntheticSpecs {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] METHODS = {"get", "post", "put", "delete"};
+
+    record Pair(String reference, String generated) {}
+
+    private SyntheticSpecs() {
+    }
+
+    static Pair pair(int operations, int schemaDepth) {
+        return new Pair(spec(operations, schemaDepth, false), spec(operations, schemaDepth, true));
+    }
+
+    static String spec(int operations, int schemaDepth, boolean generated) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("openapi", "3.0.1");
+        root.putObject("info").put("title", "Synthetic " + operations).put("version", generated ? "2" : "1");
+
+        int models = Math.max(1, operations / 4);
+        ObjectNode paths = root.putObject("paths");
+        for (int i = 0; i < operations; i++) {
+            // Every 50th operation is missing from the generated contract
+            if (generated && i % 50 == 49) continue;
+
+            String path = "/resources" + (i / METHODS.length) + "/{id}";
+            ObjectNode pathItem = paths.has(path) ? (ObjectNode) paths.get(path) : paths.putObject(path);
+            ObjectNode op = pathItem.putObject(METHODS[i % METHODS.length]);
+            op.put("operationId", "op" + i);
+            op.put("summary", "Operation " + i);
+            op.put("description", generated && i % 10 == 0
+                    ? "Operation   number " + i + "\n  reworded by the generator."
+                    : generated && i % 3 == 0 ? "Handles   resource\n   " + i + " requests." : "Handles resource " + i + " requests.");
+
+            ArrayNode parameters = op.putArray("parameters");
+            parameters.addObject().put("name", "id").put("in", "path").put("required", true)
+                    .put("description", "Identifier of the resource.")
+                    .putObject("schema").put("type", "string");
+            parameters.addObject().put("name", "filter").put("in", "query")
+                    .put("description", generated && i % 7 == 0 ? "Filter   expression" : "Filter expression")
+                    .putObject("schema").put("type", "string");
+
+            ObjectNode responses = op.putObject("responses");
+            ObjectNode ok = responses.putObject("200");
+            ok.put("description", "OK");
+            ok.putObject("content").putObject("application/json").putObject("schema")
+                    .put("$ref", "#/components/schemas/Model" + (i % models));
+            responses.putObject("404").put("description", "Not found");
+        }
+
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        ObjectNode money = schemas.putObject("Money");
+        money.put("type", "object");
+        money.put("description", generated ? "An   amount of money." : "An amount of money.");
+        ObjectNode moneyProps = money.putObject("properties");
+        moneyProps.putObject("amount").put("type", generated ? "integer" : "number");
+        moneyProps.putObject("currency").put("type", "string");
+
+        for (int m = 0; m < models; m++) {
+            ObjectNode model = nested(schemaDepth, "Model " + m);
+            if (generated && m % 7 == 0) {
+                ((ObjectNode) model.get("properties")).putObject("addedByGenerator").put("type", "string");
+            }
+            schemas.set("Model" + m, model);
+        }
+        return root.toString();
+    }
+
+    private static ObjectNode nested(int depth, String name) {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "object");
+        schema.put("description", name + " at depth " + depth);
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("id").put("type", "string").put("description", "Identifier of " + name);
+        properties.putObject("price").put("$ref", "#/components/schemas/Money");
+        if (depth > 0) {
+            properties.set("child", nested(depth - 1, name));
+            ObjectNode list = properties.putObject("children");
+            list.put("type", "array");
+            list.set("items", nested(depth - 1, name));
+        }
+        return schema;
+    }
+}
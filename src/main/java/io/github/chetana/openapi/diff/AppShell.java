@@ -0,0 +1,9 @@
+package io.github.chetana.openapi.diff;
+
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
+
+// Server push lets MainView stream compare progress and results from background threads.
+@Push
+public class AppShell implements AppShellConfigurator {
+}
@@ -0,0 +1,156 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.chetana.openapi.diff.BatchDiffService.BatchResult;
+import io.github.chetana.openapi.diff.BatchDiffService.BatchSummary;
+import io.github.chetana.openapi.diff.BatchDiffService.ContractPair;
+import io.github.chetana.openapi.diff.BatchDiffService.PairResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Command line batch mode, started from the application jar:
+ * {@code java -jar app.jar batch <manifest.(json|yaml)> [--out results.json] [--threads N] [--format F]}.
+ * With the default {@code json} format, {@code --out} is a single file with every result; with
+ * any other {@link ReportFormat}, it is a directory receiving one report per pair, named after
+ * the pair; names that collide once made file-safe get a {@code -2}, {@code -3}... suffix in
+ * manifest order. Exits with 0 when every pair matches, 1 when differences were found and 2 on
+ * failures, including invalid arguments or an unreadable manifest.
+ */
+public final class BatchCli {
+
+    private static final String USAGE = "Usage: batch <manifest.(json|yaml)> [--out results.json|reports-dir] [--threads N] "
+            + "[--format json|csv|ndjson|text|markdown|html|junit]";
+
+    private BatchCli() {
+    }
+
+    public static int run(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        Path manifest = Path.of(args[0]);
+        Path out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        ReportFormat format = ReportFormat.JSON;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String option = args[i];
+                if (!option.equals("--out") && !option.equals("--threads") && !option.equals("--format")) {
+                    throw new IllegalArgumentException("Unknown option: " + option);
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--out" -> out = Path.of(value);
+                    case "--threads" -> threads = threads(value);
+                    default -> format = ReportFormat.of(value);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        List<ContractPair> pairs;
+        try {
+            pairs = BatchDiffService.readManifest(manifest);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot read manifest " + manifest + ": " + e.getMessage());
+            return 2;
+        }
+        OpenApiDiffService diffService = new OpenApiDiffService();
+        BatchResult batch = new BatchDiffService(diffService).run(pairs, threads);
+
+        for (PairResult result : batch.results()) {
+            String status = result.failed() ? "FAILED  " + result.error()
+                    : BatchDiffService.isClean(result.result()) ? "MATCH"
+                    : "DIFF    " + result.result().structureChanges().size() + " structure / "
+                    + result.result().metadataChanges().size() + " metadata / "
+                    + result.result().missingOperationIds().size() + " missing";
+            System.out.printf("%-40s %6d ms  %s%n", result.name(), result.durationMillis(), status);
+        }
+        BatchSummary summary = batch.summary();
+        System.out.printf("%d pairs: %d match, %d different, %d failed (%d threads, %d ms)%n",
+                summary.pairs(), summary.identical(), summary.different(), summary.failed(), summary.threads(), summary.wallMillis());
+
+        if (out != null && format == ReportFormat.JSON) {
+            writeJson(batch, out);
+        } else if (out != null) {
+            writeReports(diffService, batch, format, out);
+        }
+        return summary.failed() > 0 ? 2 : summary.different() > 0 ? 1 : 0;
+    }
+
+    private static int threads(String value) {
+        int threads;
+        try {
+            threads = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--threads expects a number, got '" + value + "'");
+        }
+        if (threads < 1) throw new IllegalArgumentException("--threads must be at least 1, got " + threads);
+        return threads;
+    }
+
+    private static void writeReports(OpenApiDiffService diffService, BatchResult batch, ReportFormat format, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        // Lower-cased, for file systems that ignore case
+        Set<String> used = new HashSet<>();
+        for (PairResult result : batch.results()) {
+            if (result.failed()) continue;
+            String base = result.name().replaceAll("[^A-Za-z0-9._-]", "_");
+            String name = base;
+            for (int suffix = 2; !used.add(name.toLowerCase(Locale.ROOT)); suffix++) {
+                name = base + "-" + suffix;
+            }
+            Path file = dir.resolve(name + "." + format.extension());
+            try (OutputStream stream = Files.newOutputStream(file)) {
+                diffService.export(result.result(), format, stream);
+            }
+        }
+    }
+
+    private static void writeJson(BatchResult batch, Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             JsonGenerator json = DiffResultJsonWriter.createGenerator(stream)) {
+            BatchSummary summary = batch.summary();
+            json.writeStartObject();
+            json.writeObjectFieldStart("summary");
+            json.writeNumberField("pairs", summary.pairs());
+            json.writeNumberField("identical", summary.identical());
+            json.writeNumberField("different", summary.different());
+            json.writeNumberField("failed", summary.failed());
+            json.writeNumberField("threads", summary.threads());
+            json.writeNumberField("wallMillis", summary.wallMillis());
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("results");
+            for (PairResult result : batch.results()) {
+                json.writeStartObject();
+                json.writeStringField("name", result.name());
+                json.writeNumberField("durationMillis", result.durationMillis());
+                if (result.failed()) {
+                    json.writeStringField("error", result.error());
+                } else {
+                    json.writeFieldName("result");
+                    DiffResultJsonWriter.write(result.result(), json);
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many reference/generated comparisons concurrently on a fixed pool sized to the cores.
+ * Pairs pointing at the same reference contract share its parsed model through the
+ * {@link ReferenceContractCache} of the underlying {@link OpenApiDiffService}.
+ */
+@Service
+public class BatchDiffService {
+
+    public record ContractPair(String name, String reference, String generated) {}
+    public record Manifest(List<ContractPair> pairs) {}
+    public record PairResult(String name, DiffResult result, String error, long durationMillis) {
+        public boolean failed() {
+            return error != null;
+        }
+    }
+    public record BatchSummary(int pairs, int identical, int different, int failed, int threads, long wallMillis) {}
+    public record BatchResult(BatchSummary summary, List<PairResult> results) {}
+
+    private static final ObjectMapper MANIFEST_MAPPER = new ObjectMapper(new YAMLFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final OpenApiDiffService diffService;
+
+    public BatchDiffService(OpenApiDiffService diffService) {
+        this.diffService = diffService;
+    }
+
+    /**
+     * Reads a JSON or YAML manifest. Reference and generated entries are file paths relative to
+     * the manifest; a generated entry starting with {@code http} is kept as a URL.
+     */
+    public static List<ContractPair> readManifest(Path manifestFile) throws IOException {
+        Manifest manifest = MANIFEST_MAPPER.readValue(manifestFile.toFile(), Manifest.class);
+        if (manifest.pairs() == null || manifest.pairs().isEmpty()) {
+            throw new IllegalArgumentException("Manifest " + manifestFile + " does not declare any pairs.");
+        }
+        Path baseDir = manifestFile.toAbsolutePath().getParent();
+        List<ContractPair> pairs = new ArrayList<>();
+        for (ContractPair pair : manifest.pairs()) {
+            if (pair.reference() == null || pair.generated() == null) {
+                throw new IllegalArgumentException("Pair '" + pair.name() + "' needs both 'reference' and 'generated'.");
+            }
+            String generated = pair.generated().trim().startsWith("http")
+                    ? pair.generated().trim()
+                    : baseDir.resolve(pair.generated()).toString();
+            String name = pair.name() != null ? pair.name() : pair.reference();
+            pairs.add(new ContractPair(name, baseDir.resolve(pair.reference()).toString(), generated));
+        }
+        return pairs;
+    }
+
+    public BatchResult run(List<ContractPair> pairs) throws InterruptedException {
+        return run(pairs, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchResult run(List<ContractPair> pairs, int threads) throws InterruptedException {
+        int poolSize = Math.max(1, Math.min(threads, pairs.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        long start = System.nanoTime();
+        try {
+            List<Future<PairResult>> futures = new ArrayList<>();
+            for (ContractPair pair : pairs) {
+                futures.add(executor.submit(() -> compare(pair)));
+            }
+
+            List<PairResult> results = new ArrayList<>();
+            int identical = 0, different = 0, failed = 0;
+            for (Future<PairResult> future : futures) {
+                PairResult result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Unexpected batch failure", e.getCause());
+                }
+                results.add(result);
+                if (result.failed()) failed++;
+                else if (isClean(result.result())) identical++;
+                else different++;
+            }
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+            return new BatchResult(new BatchSummary(pairs.size(), identical, different, failed, poolSize, wallMillis), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PairResult compare(ContractPair pair) {
+        long start = System.nanoTime();
+        try {
+            String reference = Files.readString(Path.of(pair.reference()));
+            String generated = pair.generated().startsWith("http")
+                    ? pair.generated()
+                    : Files.readString(Path.of(pair.generated()));
+            // Pairs already run in parallel: sharding them too would only add slice copies
+            DiffResult result = diffService.compare(reference, generated, new CompareOptions(false, false));
+            return new PairResult(pair.name(), result, null, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            return new PairResult(pair.name(), null, String.valueOf(e.getMessage()), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    static boolean isClean(DiffResult result) {
+        return !result.isDifferent() && result.missingOperationIds().isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The detail lines of a {@link StructureChange}, kept as (kind, name, depth) nodes in parallel
+ * arrays instead of one indented string per line. A line is only formatted when it is read, so
+ * a result holds a byte per kind and depth and a reference to a shared name per detail, and
+ * the text exists only while a report is being rendered.
+ */
+final class ChangeDetails extends AbstractList<String> implements RandomAccess {
+
+    enum Kind {
+        ADDED_PARAMETER("Added parameter: "),
+        REMOVED_PARAMETER("Removed parameter: "),
+        CHANGED_PARAMETER("Changed parameter: "),
+        ADDED_RESPONSE("Added response: "),
+        REMOVED_RESPONSE("Removed response: "),
+        CHANGED_RESPONSE("Changed response: "),
+        MEDIA_TYPE("Media Type: "),
+        MISSING_PROPERTY("Missing property: "),
+        NEW_PROPERTY("New property: "),
+        CHANGED_PROPERTY("Changed property: "),
+        ITEMS_CHANGED("Items changed:"),
+        NEW_ONE_OF("New oneOf schema: "),
+        MISSING_ONE_OF("Missing oneOf schema: "),
+        CHANGED_ONE_OF("Changed oneOf schema: "),
+        ADDITIONAL_PROPERTIES_CHANGED("Additional properties changed:"),
+        COMPONENT_CHANGED("Component changed: "),
+        USED_BY("Used by: "),
+        ENDPOINT_ADDED("Endpoint added in generated contract"),
+        ENDPOINT_MISSING("Endpoint missing from generated contract"),
+        STRUCTURAL_CHANGES("Structural changes detected"),
+        // A line kept as read, e.g. from a report stored before these kinds existed
+        TEXT("");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        // Kinds that take no name are matched whole when parsing
+        private boolean named() {
+            return label.endsWith(": ") || this == TEXT;
+        }
+    }
+
+    /** A detail before it is placed in a change: its depth comes from where it is found. */
+    record Node(Kind kind, String name) {}
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final String INDENT = "  ";
+
+    static final ChangeDetails ENDPOINT_ADDED = single(Kind.ENDPOINT_ADDED);
+    static final ChangeDetails ENDPOINT_MISSING = single(Kind.ENDPOINT_MISSING);
+    static final ChangeDetails STRUCTURAL_CHANGES = single(Kind.STRUCTURAL_CHANGES);
+
+    private final byte[] kinds;
+    private final byte[] depths;
+    private final String[] names;
+
+    private ChangeDetails(byte[] kinds, byte[] depths, String[] names) {
+        this.kinds = kinds;
+        this.depths = depths;
+        this.names = names;
+    }
+
+    private static ChangeDetails single(Kind kind) {
+        return new ChangeDetails(new byte[]{(byte) kind.ordinal()}, new byte[1], new String[1]);
+    }
+
+    /** Rebuilds the nodes of already formatted lines, keeping unrecognized ones as text. */
+    static ChangeDetails parse(List<String> lines, StringDictionary dictionary) {
+        Builder builder = new Builder(dictionary);
+        for (String line : lines) {
+            int indent = 0;
+            while (line.startsWith(INDENT, indent * INDENT.length())) indent++;
+            String text = line.substring(indent * INDENT.length());
+            Kind match = Kind.TEXT;
+            for (Kind kind : KINDS) {
+                if (kind != Kind.TEXT && (kind.named() ? text.startsWith(kind.label) : text.equals(kind.label))) {
+                    match = kind;
+                    break;
+                }
+            }
+            if (match == Kind.TEXT) {
+                builder.add(Kind.TEXT, line, 0);
+            } else {
+                builder.add(match, match.named() ? text.substring(match.label.length()) : null, indent);
+            }
+        }
+        return builder.build();
+    }
+
+    Kind kind(int index) {
+        return KINDS[kinds[index]];
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    int depth(int index) {
+        return depths[index];
+    }
+
+    @Override
+    public String get(int index) {
+        Kind kind = kind(index);
+        String name = names[index];
+        int depth = depths[index];
+        StringBuilder line = new StringBuilder(depth * INDENT.length() + kind.label.length() + (name != null ? name.length() : 0));
+        for (int i = 0; i < depth; i++) {
+            line.append(INDENT);
+        }
+        line.append(kind.label);
+        if (name != null) line.append(name);
+        return line.toString();
+    }
+
+    @Override
+    public int size() {
+        return kinds.length;
+    }
+
+    static final class Builder {
+
+        private final StringDictionary dictionary;
+        private byte[] kinds = new byte[8];
+        private byte[] depths = new byte[8];
+        private String[] names = new String[8];
+        private int size;
+
+        Builder(StringDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        Builder add(Kind kind, String name, int depth) {
+            if (size == kinds.length) {
+                kinds = Arrays.copyOf(kinds, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+                names = Arrays.copyOf(names, size * 2);
+            }
+            kinds[size] = (byte) kind.ordinal();
+            // Schema walks stop at SchemaTraversal.MAX_DEPTH, well within a byte
+            depths[size] = (byte) Math.min(depth, Byte.MAX_VALUE);
+            names[size] = dictionary.intern(name);
+            size++;
+            return this;
+        }
+
+        Builder addAll(ChangeDetails details) {
+            for (int i = 0; i < details.size(); i++) {
+                add(details.kind(i), details.name(i), details.depth(i));
+            }
+            return this;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        ChangeDetails build() {
+            return new ChangeDetails(Arrays.copyOf(kinds, size), Arrays.copyOf(depths, size), Arrays.copyOf(names, size));
+        }
+    }
+}
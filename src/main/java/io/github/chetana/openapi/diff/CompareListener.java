@@ -0,0 +1,17 @@
+package io.github.chetana.openapi.diff;
+
+/**
+ * Notified by {@link OpenApiDiffService} each time a compare enters a new phase, and by
+ * {@link CompareScheduler} of its position while it waits to start.
+ */
+@FunctionalInterface
+public interface CompareListener {
+
+    CompareListener NONE = phase -> {};
+
+    void onPhase(ComparePhase phase);
+
+    /** Position (from 1) of the compare in the queue, each time it changes before it starts. */
+    default void onQueued(int position) {
+    }
+}
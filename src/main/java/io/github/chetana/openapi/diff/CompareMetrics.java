@@ -0,0 +1,229 @@
+package io.github.chetana.openapi.diff;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer instrumentation of {@link OpenApiDiffService}: one timer per compare phase, a timer
+ * per outcome, size/count summaries and the bytes allocated by the compare, on its own thread
+ * and on the {@link DiffShardPool} threads diffing its shards. Meters are registered once, so a
+ * compare only pays for a few {@link System#nanoTime()} calls and allocation counter reads.
+ * Compares slower than the configured threshold are logged with the phase that dominated.
+ */
+@Component
+public class CompareMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(CompareMetrics.class);
+
+    private static final ComparePhase[] PHASES = ComparePhase.values();
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    private final Map<ComparePhase, Timer> phaseTimers = new EnumMap<>(ComparePhase.class);
+    private final DistributionSummary referenceSize;
+    private final DistributionSummary generatedSize;
+    private final DistributionSummary referenceOperations;
+    private final DistributionSummary generatedOperations;
+    private final DistributionSummary structureChanges;
+    private final DistributionSummary metadataChanges;
+    private final DistributionSummary missingOperations;
+    private final DistributionSummary allocatedBytes;
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    // Meters go nowhere: used outside Spring (CLI, benchmarks)
+    public CompareMetrics() {
+        this(new CompositeMeterRegistry(), Duration.ofSeconds(5));
+    }
+
+    @Autowired
+    public CompareMetrics(MeterRegistry registry,
+                          @Value("${openapi-diff.metrics.slow-compare-threshold:5s}") Duration slowThreshold) {
+        this.registry = registry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+
+        for (ComparePhase phase : PHASES) {
+            phaseTimers.put(phase, Timer.builder("openapi.diff.compare.phase")
+                    .description("Time spent in each phase of a compare")
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(registry));
+        }
+        referenceSize = summary("openapi.diff.spec.size", "characters", "side", "reference", "Size of the compared contracts");
+        generatedSize = summary("openapi.diff.spec.size", "characters", "side", "generated", "Size of the compared contracts");
+        referenceOperations = summary("openapi.diff.spec.operations", "operations", "side", "reference", "Operations in the compared contracts");
+        generatedOperations = summary("openapi.diff.spec.operations", "operations", "side", "generated", "Operations in the compared contracts");
+        structureChanges = summary("openapi.diff.changes", "changes", "kind", "structure", "Changes found per compare");
+        metadataChanges = summary("openapi.diff.changes", "changes", "kind", "metadata", "Changes found per compare");
+        missingOperations = summary("openapi.diff.changes", "changes", "kind", "missing", "Changes found per compare");
+        allocatedBytes = summary("openapi.diff.compare.allocated", "bytes", "thread", "compare", "Heap allocated by the compare, diff shards included");
+
+        this.threadBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+    }
+
+    private DistributionSummary summary(String name, String unit, String tagKey, String tagValue, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+
+    void bindReferenceCache(ReferenceContractCache cache) {
+        FunctionCounter.builder("openapi.diff.reference.cache.requests", cache, c -> c.stats().hits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("openapi.diff.reference.cache.requests", cache, c -> c.stats().misses())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("openapi.diff.reference.cache.evictions", cache, c -> c.stats().evictions())
+                .register(registry);
+        Gauge.builder("openapi.diff.reference.cache.entries", cache, c -> c.stats().entries())
+                .register(registry);
+        Gauge.builder("openapi.diff.reference.cache.weight", cache, c -> c.stats().weightBytes())
+                .baseUnit("bytes").register(registry);
+    }
+
+    void bindScheduler(CompareScheduler scheduler) {
+        Gauge.builder("openapi.diff.scheduler.running", scheduler, s -> s.stats().running())
+                .register(registry);
+        Gauge.builder("openapi.diff.scheduler.queued", scheduler, s -> s.stats().queued())
+                .register(registry);
+        Gauge.builder("openapi.diff.scheduler.reserved", scheduler, s -> s.stats().reservedBytes())
+                .baseUnit("bytes").register(registry);
+        FunctionCounter.builder("openapi.diff.scheduler.rejected", scheduler, s -> s.stats().rejected())
+                .register(registry);
+    }
+
+    void recordExport(String format, long startNanos) {
+        Timer.builder("openapi.diff.export")
+                .description("Time spent writing a result in an export format")
+                .tag("format", format)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    Trace start() {
+        return new Trace();
+    }
+
+    /**
+     * Measurements of a single compare, confined to the thread running it, except for the
+     * allocations of the shard tasks it wraps with {@link #measured}.
+     */
+    final class Trace {
+
+        private final long startNanos = System.nanoTime();
+        private final long startAllocated = allocatedByCurrentThread();
+        private final LongAdder shardAllocated = new LongAdder();
+        private final long[] phaseNanos = new long[PHASES.length];
+        private ComparePhase current;
+        private long phaseStart;
+
+        private int referenceChars = -1;
+        private int generatedChars = -1;
+        private int referenceOps = -1;
+        private int generatedOps = -1;
+
+        void enter(ComparePhase phase) {
+            long now = System.nanoTime();
+            if (current != null) phaseNanos[current.ordinal()] += now - phaseStart;
+            current = phase;
+            phaseStart = now;
+        }
+
+        /** {@code task}, adding what it allocates on the thread running it to this compare. */
+        <T> Callable<T> measured(Callable<T> task) {
+            if (startAllocated < 0) return task;
+            return () -> {
+                long before = allocatedByCurrentThread();
+                try {
+                    return task.call();
+                } finally {
+                    shardAllocated.add(allocatedByCurrentThread() - before);
+                }
+            };
+        }
+
+        void specSizes(int referenceChars, int generatedChars) {
+            this.referenceChars = referenceChars;
+            this.generatedChars = generatedChars;
+        }
+
+        void operations(int referenceOps, int generatedOps) {
+            this.referenceOps = referenceOps;
+            this.generatedOps = generatedOps;
+        }
+
+        void success(OpenApiDiffService.DiffResult result) {
+            structureChanges.record(result.structureChanges().size());
+            metadataChanges.record(result.metadataChanges().size());
+            missingOperations.record(result.missingOperationIds().size());
+            finish("success", result.structureChanges().size() + result.metadataChanges().size());
+        }
+
+        void failure(Throwable error) {
+            String outcome = error instanceof CancellationException ? "cancelled"
+                    : error instanceof IllegalArgumentException ? "invalid" : "error";
+            finish(outcome, -1);
+        }
+
+        private void finish(String outcome, int changes) {
+            enter(null);
+            long totalNanos = System.nanoTime() - startNanos;
+            // Shards still running after a cancel are not counted
+            long allocated = startAllocated >= 0 ? allocatedByCurrentThread() - startAllocated + shardAllocated.sum() : -1;
+
+            ComparePhase dominant = null;
+            for (ComparePhase phase : PHASES) {
+                long nanos = phaseNanos[phase.ordinal()];
+                if (nanos == 0) continue;
+                phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+                if (dominant == null || nanos > phaseNanos[dominant.ordinal()]) dominant = phase;
+            }
+            Timer.builder("openapi.diff.compare")
+                    .description("End-to-end compare time by outcome")
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(totalNanos, TimeUnit.NANOSECONDS);
+            if (referenceChars >= 0) referenceSize.record(referenceChars);
+            if (generatedChars >= 0) generatedSize.record(generatedChars);
+            if (referenceOps >= 0) referenceOperations.record(referenceOps);
+            if (generatedOps >= 0) generatedOperations.record(generatedOps);
+            if (allocated >= 0) allocatedBytes.record(allocated);
+
+            if (totalNanos >= slowThresholdNanos) {
+                StringJoiner phases = new StringJoiner(",");
+                for (ComparePhase phase : PHASES) {
+                    long nanos = phaseNanos[phase.ordinal()];
+                    if (nanos > 0) phases.add(phase.name().toLowerCase() + "=" + TimeUnit.NANOSECONDS.toMillis(nanos));
+                }
+                log.warn("slow_compare outcome={} total_ms={} dominant_phase={} dominant_ms={} phases_ms={} reference_chars={} generated_chars={} reference_ops={} generated_ops={} changes={} allocated_bytes={}",
+                        outcome, TimeUnit.NANOSECONDS.toMillis(totalNanos),
+                        dominant == null ? "none" : dominant.name().toLowerCase(),
+                        dominant == null ? 0 : TimeUnit.NANOSECONDS.toMillis(phaseNanos[dominant.ordinal()]),
+                        phases, referenceChars, generatedChars, referenceOps, generatedOps, changes, allocated);
+            }
+        }
+    }
+
+    private long allocatedByCurrentThread() {
+        return threadBean != null ? threadBean.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
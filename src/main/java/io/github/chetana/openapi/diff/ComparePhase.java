@@ -0,0 +1,11 @@
+package io.github.chetana.openapi.diff;
+
+public enum ComparePhase {
+    FETCH,
+    SCAN,
+    PARSE,
+    NORMALIZE,
+    FILTER,
+    DIFF,
+    EXTRACT
+}
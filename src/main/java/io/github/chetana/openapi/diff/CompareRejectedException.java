@@ -0,0 +1,12 @@
+package io.github.chetana.openapi.diff;
+
+/**
+ * Thrown by {@link CompareScheduler} when a compare is not admitted: the queue is full, or the
+ * contracts would not fit the heap. Unlike invalid input, retrying later may work.
+ */
+public class CompareRejectedException extends RuntimeException {
+
+    public CompareRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,260 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of {@link OpenApiDiffService} for the UI and the REST API. At most
+ * {@code max-concurrent} compares run at once, and only while the sum of their estimated heap
+ * footprints fits the memory budget. The others wait in a bounded FIFO queue, and a compare that
+ * finds the queue full is rejected at once. A compare larger than the whole budget still runs, alone:
+ * it waits for the others to finish and holds back the ones behind it. Only a compare estimated
+ * above the entire heap is refused outright.
+ */
+@Component
+public class CompareScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CompareScheduler.class);
+
+    public record Stats(int running, int queued, long reservedBytes, long rejected) {}
+
+    private final OpenApiDiffService diffService;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long memoryBudgetBytes;
+    private final int bytesPerInputChar;
+    private final ExecutorService workers;
+
+    private final Deque<Ticket> queue = new ArrayDeque<>();
+    private int running;
+    private long reservedBytes;
+    private long rejected;
+
+    public CompareScheduler(OpenApiDiffService diffService) {
+        this(diffService, new CompareMetrics(), 0, 16, 0, 32);
+    }
+
+    @Autowired
+    public CompareScheduler(OpenApiDiffService diffService, CompareMetrics metrics,
+                            @Value("${openapi-diff.compare.max-concurrent:0}") int maxConcurrent,
+                            @Value("${openapi-diff.compare.queue-capacity:16}") int queueCapacity,
+                            @Value("${openapi-diff.compare.memory-budget-mb:0}") long memoryBudgetMb,
+                            @Value("${openapi-diff.compare.memory-per-input-char:32}") int bytesPerInputChar) {
+        this.diffService = diffService;
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        // Leave room for the reference cache, the sessions and the rest of the application
+        this.memoryBudgetBytes = memoryBudgetMb > 0 ? memoryBudgetMb * 1024 * 1024 : Runtime.getRuntime().maxMemory() * 6 / 10;
+        this.bytesPerInputChar = bytesPerInputChar;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.maxConcurrent, task -> {
+            Thread thread = new Thread(task, "compare-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.bindScheduler(this);
+    }
+
+    /**
+     * Queues a compare and returns its ticket. {@code listener} is told its queue position
+     * ({@link CompareListener#onQueued}) each time it changes, then each phase once it runs.
+     *
+     * @throws CompareRejectedException if the queue is full or the compare exceeds the whole heap
+     */
+    public Ticket submit(String reference, String generated, CompareOptions options, CompareListener listener) {
+        Ticket ticket = new Ticket(reference, generated, options, listener, estimateBytes(reference, generated));
+        List<Ticket> moved;
+        synchronized (this) {
+            long maxHeap = Runtime.getRuntime().maxMemory();
+            if (ticket.estimatedBytes > maxHeap) {
+                rejected++;
+                throw new CompareRejectedException(String.format(
+                        "Contracts too large: the compare would need about %d MB, more than the %d MB heap.",
+                        ticket.estimatedBytes >> 20, maxHeap >> 20));
+            }
+            if (queue.size() >= queueCapacity && !(queue.isEmpty() && canStart(ticket))) {
+                rejected++;
+                throw new CompareRejectedException("Too many compares in progress (" + running + " running, "
+                        + queue.size() + " queued), try again shortly.");
+            }
+            queue.addLast(ticket);
+            moved = dispatch();
+        }
+        notifyPositions(moved, ticket);
+        return ticket;
+    }
+
+    /**
+     * Runs a compare through the queue on a worker thread and waits for its result. An
+     * interrupted caller cancels the compare.
+     */
+    public DiffResult compare(String reference, String generated, CompareOptions options) throws Exception {
+        Ticket ticket = submit(reference, generated, options, CompareListener.NONE);
+        try {
+            return ticket.result().get();
+        } catch (InterruptedException e) {
+            ticket.cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Comparison interrupted while waiting");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Heap a compare is expected to hold at its peak. Measured with the smallest heap a compare
+     * of two synthetic contracts (every operation changed) succeeds in, minus the idle
+     * application: about 20 bytes per input character from 1.6 to 13 million characters, the
+     * latter two 6.7 MB contracts needing 271 MB. The default factor of 32 leaves room above
+     * that; the 200 bytes per character such a compare allocates over its run are mostly
+     * short-lived and do not count. The size of a generated contract given by URL is unknown
+     * before the fetch: the reference size stands in for it.
+     */
+    long estimateBytes(String reference, String generated) {
+        long referenceChars = reference.length();
+        long generatedChars = generated.trim().startsWith("http") ? referenceChars : generated.length();
+        return (referenceChars + generatedChars) * bytesPerInputChar;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(running, queue.size(), reservedBytes, rejected);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private boolean canStart(Ticket ticket) {
+        // A compare alone is always let through, even one above the budget: it was checked against the heap
+        return running < maxConcurrent && (running == 0 || reservedBytes + ticket.estimatedBytes <= memoryBudgetBytes);
+    }
+
+    // Starts queued compares in order while they fit; returns the tickets still waiting when
+    // anything started, so their new positions can be reported outside the lock
+    private List<Ticket> dispatch() {
+        boolean started = false;
+        while (!queue.isEmpty() && canStart(queue.peekFirst())) {
+            Ticket ticket = queue.pollFirst();
+            running++;
+            reservedBytes += ticket.estimatedBytes;
+            workers.execute(ticket::run);
+            started = true;
+        }
+        return started ? new ArrayList<>(queue) : List.of();
+    }
+
+    private void release(Ticket ticket) {
+        List<Ticket> moved;
+        synchronized (this) {
+            running--;
+            reservedBytes -= ticket.estimatedBytes;
+            moved = dispatch();
+        }
+        notifyPositions(moved, null);
+    }
+
+    private void notifyPositions(List<Ticket> waiting, Ticket submitted) {
+        int position = 1;
+        for (Ticket ticket : waiting) {
+            ticket.listener.onQueued(position++);
+        }
+        if (submitted != null && !waiting.contains(submitted)) {
+            int queued = positionOf(submitted);
+            if (queued > 0) submitted.listener.onQueued(queued);
+        }
+    }
+
+    private synchronized int positionOf(Ticket ticket) {
+        int position = 1;
+        for (Ticket queued : queue) {
+            if (queued == ticket) return position;
+            position++;
+        }
+        return 0;
+    }
+
+    /**
+     * A submitted compare. Its result completes exceptionally with a {@link CancellationException}
+     * when it is cancelled, whether it was still queued or already running.
+     */
+    public final class Ticket {
+
+        private final String reference;
+        private final String generated;
+        private final CompareOptions options;
+        private final CompareListener listener;
+        private final long estimatedBytes;
+        private final CompletableFuture<DiffResult> result = new CompletableFuture<>();
+        // Guarded by the scheduler: the thread running the compare, if it runs
+        private Thread worker;
+
+        private Ticket(String reference, String generated, CompareOptions options, CompareListener listener, long estimatedBytes) {
+            this.reference = reference;
+            this.generated = generated;
+            this.options = options;
+            this.listener = listener;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public CompletableFuture<DiffResult> result() {
+            return result;
+        }
+
+        /** Removes the compare from the queue, or interrupts it if it already runs. */
+        public boolean cancel() {
+            List<Ticket> moved = List.of();
+            boolean cancelled;
+            synchronized (CompareScheduler.this) {
+                if (result.isDone()) return false;
+                if (queue.remove(this)) {
+                    moved = new ArrayList<>(queue);
+                } else if (worker != null) {
+                    worker.interrupt();
+                }
+                cancelled = result.completeExceptionally(new CancellationException("Comparison cancelled"));
+            }
+            notifyPositions(moved, null);
+            return cancelled;
+        }
+
+        private void run() {
+            try {
+                synchronized (CompareScheduler.this) {
+                    // Cancelled between leaving the queue and reaching a worker
+                    if (result.isDone()) return;
+                    worker = Thread.currentThread();
+                }
+                result.complete(diffService.compare(reference, generated, options, listener));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (CompareScheduler.this) {
+                    worker = null;
+                }
+                // A cancel that came too late must not interrupt the next compare on this thread
+                Thread.interrupted();
+                release(this);
+                if (log.isDebugEnabled()) log.debug("Compare finished, scheduler now {}", stats());
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.model.ChangedMetadata;
+import org.openapitools.openapidiff.core.model.ChangedSchema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports each changed component schema once instead of under every operation that uses it.
+ * <p>
+ * The expanders it hands out wrap the usual ones: a changed schema that is a reference
+ * component is not walked where an operation meets it, it becomes a single
+ * {@code Component changed} line there. Every component met that way, and every component met
+ * inside those, is then walked once into a change of its own, listing the operations that
+ * reach it. Reaching operations come from the {@code $ref}s of the reference spec, so the output
+ * grows with the number of components and operations rather than with their product.
+ */
+final class ComponentChanges {
+
+    static final String METHOD = "SCHEMA";
+    static final String CHANGE_TYPE = "COMPONENT";
+    private static final String REF_PREFIX = "#/components/schemas/";
+
+    private static final class Component {
+        private final String name;
+        private final ChangedSchema schema;
+        private ChangeDetails details;
+        private boolean walking;
+
+        private Component(String name, ChangedSchema schema) {
+            this.name = name;
+            this.schema = schema;
+        }
+    }
+
+    private final OpenAPI reference;
+    private final SchemaTraversal.Expander<ChangedSchema, ChangeDetails.Node> detailsExpander;
+    private final SchemaTraversal.Expander<ChangedSchema, ChangedMetadata> descriptionsExpander;
+    private final StringDictionary dictionary;
+    // The engine resolves a $ref to the component instance of the spec: that identity names it
+    private final Map<Object, String> names = new IdentityHashMap<>();
+    private final Map<String, Component> byName = new HashMap<>();
+    private final List<Component> found = new ArrayList<>();
+
+    ComponentChanges(OpenAPI reference,
+                     SchemaTraversal.Expander<ChangedSchema, ChangeDetails.Node> detailsExpander,
+                     SchemaTraversal.Expander<ChangedSchema, ChangedMetadata> descriptionsExpander,
+                     StringDictionary dictionary) {
+        this.reference = reference;
+        this.detailsExpander = detailsExpander;
+        this.descriptionsExpander = descriptionsExpander;
+        this.dictionary = dictionary;
+        if (reference != null && reference.getComponents() != null && reference.getComponents().getSchemas() != null) {
+            reference.getComponents().getSchemas().forEach((name, schema) -> names.put(schema, name));
+        }
+    }
+
+    /** Structure details of operations, with components collapsed to one line. */
+    SchemaTraversal.Expander<ChangedSchema, ChangeDetails.Node> details() {
+        return (schema, children) -> expandDetails(schema, children, null);
+    }
+
+    /** Description changes of operations, leaving out those inside components. */
+    SchemaTraversal.Expander<ChangedSchema, ChangedMetadata> descriptions() {
+        return (schema, children) -> expandDescriptions(schema, children, null);
+    }
+
+    /** Appends one change per component met so far, in the order they were met. */
+    void appendTo(List<StructureChange> structureChanges, List<MetadataChange> metadataChanges) {
+        if (found.isEmpty()) return;
+        Map<String, List<OperationKey>> usages = OperationFingerprints.usages(reference);
+        // Walking a component can meet further components: the list grows while it is read
+        for (int i = 0; i < found.size(); i++) {
+            Component component = found.get(i);
+            String ref = dictionary.intern(REF_PREFIX + component.name);
+
+            new SchemaTraversal<ChangedSchema, ChangedMetadata>((schema, children) -> expandDescriptions(schema, children, component))
+                    .walk(component.schema, component.name)
+                    .forEach(entry -> metadataChanges.add(new MetadataChange(ref, METHOD, dictionary.intern(entry.label()),
+                            String.valueOf(entry.payload().getLeft()), String.valueOf(entry.payload().getRight()))));
+
+            ChangeDetails details = details(component);
+            if (details.isEmpty() && component.schema.isCompatible()) continue;
+            ChangeDetails.Builder lines = new ChangeDetails.Builder(dictionary).addAll(details);
+            for (OperationKey operation : usages.getOrDefault(REF_PREFIX + component.name, List.of())) {
+                lines.add(ChangeDetails.Kind.USED_BY, operation.method() + " " + operation.path(), 0);
+            }
+            structureChanges.add(new StructureChange(METHOD, ref, CHANGE_TYPE, lines.build(), !component.schema.isCompatible()));
+        }
+    }
+
+    private void expandDetails(ChangedSchema schema, SchemaTraversal.Children<ChangedSchema, ChangeDetails.Node> children, Component root) {
+        Component component = root != null && schema == root.schema ? null : component(schema);
+        if (component == null) {
+            detailsExpander.expand(schema, children);
+        } else if (component.walking || !details(component).isEmpty()) {
+            // A component met again inside its own walk is a recursive model: it did change
+            children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.COMPONENT_CHANGED, component.name));
+        }
+    }
+
+    private void expandDescriptions(ChangedSchema schema, SchemaTraversal.Children<ChangedSchema, ChangedMetadata> children, Component root) {
+        Component component = root != null && schema == root.schema ? null : component(schema);
+        if (component == null) descriptionsExpander.expand(schema, children);
+    }
+
+    // The structure details of a component, walked the first time they are needed. Each walk
+    // gets its own traversal: one shared with operations would replay the expanded component
+    // where it must be collapsed.
+    private ChangeDetails details(Component component) {
+        if (component.details != null) return component.details;
+        component.walking = true;
+        ChangeDetails.Builder details = new ChangeDetails.Builder(dictionary);
+        new SchemaTraversal<ChangedSchema, ChangeDetails.Node>((schema, children) -> expandDetails(schema, children, component))
+                .walk(component.schema, "")
+                .forEach(entry -> details.add(entry.payload().kind(), entry.payload().name(), entry.label().length() / 2));
+        component.walking = false;
+        component.details = details.build();
+        return component.details;
+    }
+
+    private Component component(ChangedSchema schema) {
+        String name = schema.getOldSchema() != null ? names.get(schema.getOldSchema()) : null;
+        if (name == null) return null;
+        Component component = byName.get(name);
+        if (component == null) {
+            component = new Component(name, schema);
+            byName.put(name, component);
+            found.add(component);
+        }
+        return component;
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entry gate for contract contents, before the swagger parser builds a tree and a model out of
+ * them. Uploads and request bodies are read under a hard byte cap, and every content gets a
+ * streaming pre-scan that takes milliseconds: syntax, OpenAPI 3 version, path and operation
+ * counts, and local {@code $ref}s to components that are not declared. Bad inputs are rejected
+ * there with an {@link IllegalArgumentException}.
+ */
+@Component
+public class ContractIngestor {
+
+    public enum ContractFormat { JSON, YAML }
+
+    public record ContractStats(ContractFormat format, String openapiVersion, int paths, int operations, int refs, int components) {}
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+    private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+    private static final String COMPONENTS_PREFIX = "#/components/";
+    private static final int MAX_REPORTED_REFS = 5;
+
+    private final long maxBytes;
+
+    public ContractIngestor() {
+        this(20);
+    }
+
+    @Autowired
+    public ContractIngestor(@Value("${openapi-diff.ingest.max-size-mb:20}") long maxSizeMb) {
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /** A buffer for one upload that fails with an {@link IOException} as soon as it exceeds the cap. */
+    public CappedBuffer buffer(String source) {
+        return new CappedBuffer(source);
+    }
+
+    /** Reads {@code in} as UTF-8 text, failing as soon as it exceeds the cap. */
+    public String read(InputStream in, String source) throws IOException {
+        CappedBuffer buffer = buffer(source);
+        in.transferTo(buffer);
+        return buffer.content();
+    }
+
+    /** Rejects pasted or posted content over the cap; a char is at least one UTF-8 byte. */
+    public void checkSize(String content, String source) {
+        checkSize(content.length(), source);
+    }
+
+    public void checkSize(long size, String source) {
+        if (size > maxBytes) {
+            throw tooLarge(source);
+        }
+    }
+
+    static ContractFormat detectFormat(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c) || c == '\uFEFF') continue;
+            return c == '{' || c == '[' ? ContractFormat.JSON : ContractFormat.YAML;
+        }
+        return ContractFormat.YAML;
+    }
+
+    /**
+     * Streams over {@code content} once without building a tree. Throws an
+     * {@link IllegalArgumentException} naming {@code source} when the content is not well-formed,
+     * is not an OpenAPI 3 document, or references components it does not declare.
+     */
+    static ContractStats scan(String content, String source) {
+        ContractFormat format = detectFormat(content);
+        String version = null;
+        int paths = 0;
+        int operations = 0;
+        int refCount = 0;
+        Set<String> refs = new HashSet<>();
+        Set<String> declared = new HashSet<>();
+
+        try (JsonParser parser = (format == ContractFormat.JSON ? JSON_FACTORY : YAML_FACTORY).createParser(content)) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("The " + source + " contract is not an OpenAPI document: expected an object at the top level.");
+            }
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME) continue;
+                String name = parser.currentName();
+                JsonStreamContext holder = parser.getParsingContext().getParent();
+
+                if ("$ref".equals(name)) {
+                    if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        refCount++;
+                        refs.add(parser.getText());
+                    }
+                } else if (holder.inRoot()) {
+                    if ("openapi".equals(name) || "swagger".equals(name)) {
+                        parser.nextToken();
+                        version = name.equals("swagger") ? "swagger " + parser.getText() : parser.getText();
+                    }
+                } else if (holder.getParent().inRoot()) {
+                    if ("paths".equals(holder.getCurrentName())) paths++;
+                } else if (holder.getParent().getParent().inRoot()) {
+                    String section = holder.getParent().getCurrentName();
+                    if ("paths".equals(section) && HTTP_METHODS.contains(name)) {
+                        operations++;
+                    } else if ("components".equals(section)) {
+                        declared.add(COMPONENTS_PREFIX + holder.getCurrentName() + "/" + name);
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The " + source + " contract is not valid " + format + " (line "
+                    + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr() + "): " + firstLine(e.getOriginalMessage()), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the " + source + " contract: " + e.getMessage(), e);
+        }
+
+        if (version == null || !version.startsWith("3.")) {
+            throw new IllegalArgumentException("The " + source + " contract is not an OpenAPI 3 document"
+                    + (version != null ? " (" + version + ")" : ": no 'openapi' version field") + ".");
+        }
+        List<String> dangling = danglingRefs(refs, declared);
+        if (!dangling.isEmpty()) {
+            throw new IllegalArgumentException("The " + source + " contract references undeclared components: "
+                    + String.join(", ", dangling) + (dangling.size() == MAX_REPORTED_REFS ? ", ..." : "") + ".");
+        }
+        return new ContractStats(format, version, paths, operations, refCount, declared.size());
+    }
+
+    // Only local component references are checked: external files and URLs are the parser's job
+    private static List<String> danglingRefs(Set<String> refs, Set<String> declared) {
+        List<String> dangling = new ArrayList<>();
+        for (String ref : refs) {
+            if (!ref.startsWith(COMPONENTS_PREFIX)) continue;
+            String[] parts = ref.substring(COMPONENTS_PREFIX.length()).split("/", 2);
+            if (parts.length != 2) continue;
+            String name = parts[1].replace("~1", "/").replace("~0", "~");
+            if (!declared.contains(COMPONENTS_PREFIX + parts[0] + "/" + name)) {
+                dangling.add(ref);
+                if (dangling.size() == MAX_REPORTED_REFS) break;
+            }
+        }
+        return dangling;
+    }
+
+    // The YAML parser appends a source excerpt after the message
+    private static String firstLine(String message) {
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    private IllegalArgumentException tooLarge(String source) {
+        return new IllegalArgumentException("The " + source + " contract exceeds the " + (maxBytes >> 20) + " MB limit.");
+    }
+
+    public final class CappedBuffer extends OutputStream {
+
+        private final String source;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private CappedBuffer(String source) {
+            this.source = source;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureRoom(1);
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureRoom(len);
+            bytes.write(b, off, len);
+        }
+
+        private void ensureRoom(int len) throws IOException {
+            if (bytes.size() + (long) len > maxBytes) {
+                throw new IOException(tooLarge(source).getMessage());
+            }
+        }
+
+        public long size() {
+            return bytes.size();
+        }
+
+        /** The bytes received so far as UTF-8 text, without a leading byte order mark. */
+        public String content() {
+            String content = bytes.toString(StandardCharsets.UTF_8);
+            return !content.isEmpty() && content.charAt(0) == '\uFEFF' ? content.substring(1) : content;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.chetana.openapi.diff;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.upload.Upload;
+
+/**
+ * One side of the comparison in {@link MainView}: a text area for pasted content or a URL, and
+ * an upload for files too large to paste. Uploads are read under the {@link ContractIngestor}
+ * byte cap and pre-scanned on arrival, so a bad file is reported before any compare starts.
+ */
+class ContractInput extends VerticalLayout {
+
+    private final String source;
+    private final TextArea area;
+    private final Upload upload;
+    private final Span fileInfo = new Span();
+
+    private ContractIngestor.CappedBuffer receiving;
+    private String uploadedContent;
+
+    ContractInput(ContractIngestor ingestor, String source, String label, String placeholder) {
+        this.source = source;
+        this.area = new TextArea(label);
+        this.upload = new Upload((fileName, mimeType) -> receiving = ingestor.buffer(source));
+
+        setPadding(false);
+        setSpacing(false);
+
+        area.setPlaceholder(placeholder);
+        area.setHeight("300px");
+        area.setWidthFull();
+        area.setMaxLength((int) Math.min(Integer.MAX_VALUE, ingestor.maxBytes()));
+        // Typing replaces the uploaded file
+        area.addValueChangeListener(event -> {
+            if (event.isFromClient() && !event.getValue().isEmpty()) clearUpload();
+        });
+
+        upload.setUploadButton(new Button("Importer un fichier"));
+        upload.setDropLabel(new Span("ou déposez un fichier JSON/YAML"));
+        upload.setAcceptedFileTypes(".json", ".yaml", ".yml");
+        upload.setMaxFiles(1);
+        upload.setMaxFileSize((int) Math.min(Integer.MAX_VALUE, ingestor.maxBytes()));
+        upload.addSucceededListener(event -> accept(event.getFileName()));
+        upload.addFailedListener(event -> reject(event.getFileName(), event.getReason() != null ? event.getReason().getMessage() : "échec du transfert"));
+        upload.addFileRejectedListener(event -> reject(null, event.getErrorMessage()));
+        upload.getElement().addEventListener("file-remove", event -> clearUpload());
+
+        fileInfo.getStyle().set("font-size", "var(--lumo-font-size-s)");
+        fileInfo.setVisible(false);
+
+        add(area, upload, fileInfo);
+    }
+
+    /** The uploaded file if there is one, otherwise the text area content. */
+    String value() {
+        return uploadedContent != null ? uploadedContent : area.getValue();
+    }
+
+    private void accept(String fileName) {
+        String content = receiving.content();
+        long size = receiving.size();
+        receiving = null;
+        try {
+            ContractIngestor.ContractStats stats = ContractIngestor.scan(content, source);
+            uploadedContent = content;
+            area.clear();
+            showInfo("📄 " + fileName + " (" + (size / 1024) + " Ko) : OpenAPI " + stats.openapiVersion() + ", "
+                    + stats.paths() + " chemins, " + stats.operations() + " opérations", false);
+        } catch (IllegalArgumentException e) {
+            reject(fileName, e.getMessage());
+        }
+    }
+
+    private void reject(String fileName, String reason) {
+        receiving = null;
+        uploadedContent = null;
+        upload.clearFileList();
+        showInfo("❌ Fichier " + (fileName != null ? fileName + " " : "") + "refusé : " + reason, true);
+    }
+
+    private void clearUpload() {
+        if (uploadedContent == null) return;
+        uploadedContent = null;
+        upload.clearFileList();
+        fileInfo.setVisible(false);
+    }
+
+    private void showInfo(String text, boolean error) {
+        fileInfo.setText(text);
+        fileInfo.getStyle().set("color", error ? "var(--lumo-error-text-color)" : "var(--lumo-secondary-text-color)");
+        fileInfo.setVisible(true);
+    }
+}
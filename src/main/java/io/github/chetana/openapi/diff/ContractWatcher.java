@@ -0,0 +1,317 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares local contract files again as they are saved. A watch is a reference/generated pair
+ * of files, or a pair of directories whose contracts are matched by file name. Writes are
+ * debounced per watch: a pair is compared once its files have been quiet for the configured
+ * delay, and only if the content hash of one of them moved, so a build rewriting a file
+ * identically costs nothing. Compares are incremental, so only the operations that changed go
+ * through the diff engine, and the reference is parsed again only when its content changed.
+ * <p>
+ * One thread takes the file events of every watch and another submits their compares, one at a
+ * time, to the {@link CompareScheduler}, so that they share its concurrency and memory limits
+ * with the UI and the API. A pair whose compare failed or was rejected is compared again on its
+ * next write. The UI may only watch paths below {@code openapi-diff.watch.roots}.
+ */
+@Component
+public class ContractWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ContractWatcher.class);
+
+    private static final Set<String> CONTRACT_EXTENSIONS = Set.of(".json", ".yaml", ".yml");
+    private static final CompareOptions OPTIONS = new CompareOptions(true, true);
+
+    /** A compare of one watched pair; {@code name} is the reference file name. */
+    public record Update(String name, DiffResult result, String error, long durationMillis) {
+        public boolean failed() {
+            return error != null;
+        }
+    }
+
+    public interface Listener {
+        /** Called on the compare thread of the watcher. */
+        void onUpdate(Update update);
+    }
+
+    private final CompareScheduler compareScheduler;
+    private final Duration debounce;
+    private final List<Path> roots;
+    private final ScheduledExecutorService compares = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "contract-watch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this; the watch service and its thread start with the first watch
+    private final Map<Path, WatchKey> keys = new HashMap<>();
+    private final Map<Path, List<Watch>> watchesByDirectory = new HashMap<>();
+    private WatchService watchService;
+
+    public ContractWatcher(CompareScheduler compareScheduler, Duration debounce) {
+        this(compareScheduler, debounce, "");
+    }
+
+    @Autowired
+    public ContractWatcher(CompareScheduler compareScheduler,
+                           @Value("${openapi-diff.watch.debounce:300ms}") Duration debounce,
+                           @Value("${openapi-diff.watch.roots:}") String roots) {
+        this.compareScheduler = compareScheduler;
+        this.debounce = debounce;
+        this.roots = Arrays.stream(roots.split(","))
+                .map(String::trim)
+                .filter(root -> !root.isEmpty())
+                .map(root -> Path.of(root).toAbsolutePath().normalize())
+                .toList();
+    }
+
+    /** Whether the UI may watch anything at all. */
+    public boolean hasRoots() {
+        return !roots.isEmpty();
+    }
+
+    /**
+     * Watches two contract files, or two directories of contracts paired by file name. Every pair
+     * is compared once, after the debounce delay, then each time one of its files changes.
+     */
+    public Watch watch(Path reference, Path generated, Listener listener) throws IOException {
+        Path referencePath = reference.toAbsolutePath().normalize();
+        Path generatedPath = generated.toAbsolutePath().normalize();
+        boolean directories = Files.isDirectory(referencePath);
+        if (directories != Files.isDirectory(generatedPath)) {
+            throw new IllegalArgumentException("Watch either two contract files or two directories: " + reference + ", " + generated);
+        }
+        if (!directories && !(Files.isRegularFile(referencePath) && Files.isRegularFile(generatedPath))) {
+            throw new IllegalArgumentException("No such contract file: " + (Files.isRegularFile(referencePath) ? generated : reference));
+        }
+
+        Watch watch = new Watch(referencePath, generatedPath, directories, listener);
+        synchronized (this) {
+            register(directories ? referencePath : referencePath.getParent(), watch);
+            register(directories ? generatedPath : generatedPath.getParent(), watch);
+        }
+        watch.touched(watch.pairNames());
+        log.info("Watching {} against {}", referencePath, generatedPath);
+        return watch;
+    }
+
+    /** {@link #watch} for paths chosen from the UI, which must resolve below a configured root. */
+    public Watch watchWithinRoots(Path reference, Path generated, Listener listener) throws IOException {
+        if (roots.isEmpty()) {
+            throw new IllegalStateException("Watch mode is disabled: openapi-diff.watch.roots is empty");
+        }
+        return watch(withinRoots(reference), withinRoots(generated), listener);
+    }
+
+    private Path withinRoots(Path path) throws IOException {
+        // Real paths, so that neither ".." nor a symbolic link leads outside a root
+        Path real = path.toRealPath();
+        for (Path root : roots) {
+            if (Files.exists(root) && real.startsWith(root.toRealPath())) return real;
+        }
+        throw new IllegalArgumentException(path + " is outside the watched roots");
+    }
+
+    private void register(Path directory, Watch watch) throws IOException {
+        List<Watch> watches = watchesByDirectory.get(directory);
+        if (watches == null) {
+            if (watchService == null) start();
+            keys.put(directory, directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+            watches = new ArrayList<>();
+            watchesByDirectory.put(directory, watches);
+        }
+        if (!watches.contains(watch)) watches.add(watch);
+    }
+
+    private synchronized void unregister(Watch watch) {
+        watchesByDirectory.entrySet().removeIf(entry -> {
+            entry.getValue().remove(watch);
+            if (!entry.getValue().isEmpty()) return false;
+            keys.remove(entry.getKey()).cancel();
+            return true;
+        });
+    }
+
+    private void start() throws IOException {
+        watchService = Path.of("").getFileSystem().newWatchService();
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> takeEvents(service), "contract-watch-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void takeEvents(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                List<Watch> watches;
+                synchronized (this) {
+                    watches = List.copyOf(watchesByDirectory.getOrDefault(directory, List.of()));
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Events were lost: every pair of the directory may have changed
+                    Path file = event.kind() == StandardWatchEventKinds.OVERFLOW ? null : directory.resolve((Path) event.context());
+                    watches.forEach(watch -> watch.touched(directory, file));
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        compares.shutdownNow();
+        synchronized (this) {
+            if (watchService != null) watchService.close();
+        }
+    }
+
+    private static boolean isContract(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return CONTRACT_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    /** A registered pair of files or directories; closing it stops the watch. */
+    public final class Watch implements AutoCloseable {
+
+        private final Path reference;
+        private final Path generated;
+        private final boolean directories;
+        private final Listener listener;
+        // Guarded by this: pairs touched since the last compare, and the compare waiting for quiet
+        private final Set<String> pending = new LinkedHashSet<>();
+        private ScheduledFuture<?> scheduled;
+        // Only used on the compare thread: content hashes each pair was last compared with
+        private final Map<String, String> comparedHashes = new HashMap<>();
+        private volatile boolean closed;
+
+        private Watch(Path reference, Path generated, boolean directories, Listener listener) {
+            this.reference = reference;
+            this.generated = generated;
+            this.directories = directories;
+            this.listener = listener;
+        }
+
+        public Path reference() {
+            return reference;
+        }
+
+        public Path generated() {
+            return generated;
+        }
+
+        private List<String> pairNames() throws IOException {
+            if (!directories) return List.of(reference.getFileName().toString());
+            try (Stream<Path> files = Files.list(reference)) {
+                return files.filter(file -> isContract(file) && Files.isRegularFile(generated.resolve(file.getFileName())))
+                        .map(file -> file.getFileName().toString())
+                        .sorted()
+                        .toList();
+            }
+        }
+
+        private void touched(Path directory, Path file) {
+            if (file == null) {
+                try {
+                    touched(pairNames());
+                } catch (IOException e) {
+                    log.warn("Could not list {}: {}", reference, e.getMessage());
+                }
+            } else if (directories ? isContract(file) && (directory.equals(reference) || directory.equals(generated))
+                    : file.equals(reference) || file.equals(generated)) {
+                touched(List.of(directories ? file.getFileName().toString() : reference.getFileName().toString()));
+            }
+        }
+
+        private synchronized void touched(List<String> names) {
+            if (closed || names.isEmpty()) return;
+            pending.addAll(names);
+            // Each write pushes the compare back until the files are quiet
+            if (scheduled != null) scheduled.cancel(false);
+            scheduled = compares.schedule(this::compareTouched, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void compareTouched() {
+            List<String> names;
+            synchronized (this) {
+                names = List.copyOf(pending);
+                pending.clear();
+            }
+            for (String name : names) {
+                if (closed) return;
+                compare(name);
+            }
+        }
+
+        private void compare(String name) {
+            Path referenceFile = directories ? reference.resolve(name) : reference;
+            Path generatedFile = directories ? generated.resolve(name) : generated;
+            long start = System.nanoTime();
+            Update update;
+            try {
+                if (!Files.isRegularFile(referenceFile) || !Files.isRegularFile(generatedFile)) {
+                    // Deleted, or only on one side: compared again once both exist
+                    comparedHashes.remove(name);
+                    return;
+                }
+                String referenceContent = Files.readString(referenceFile);
+                String generatedContent = Files.readString(generatedFile);
+                String hashes = ReferenceContractCache.hash(referenceContent) + " " + ReferenceContractCache.hash(generatedContent);
+                if (hashes.equals(comparedHashes.put(name, hashes))) return;
+                DiffResult result = compareScheduler.compare(referenceContent, generatedContent, OPTIONS);
+                update = new Update(name, result, null, (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                comparedHashes.remove(name);
+                update = new Update(name, null, String.valueOf(e.getMessage()), (System.nanoTime() - start) / 1_000_000);
+            }
+            try {
+                listener.onUpdate(update);
+            } catch (RuntimeException e) {
+                log.warn("Watch listener failed for {}", name, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                if (scheduled != null) scheduled.cancel(false);
+            }
+            unregister(this);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Streams a {@link DiffResult} as CSV, row by row, to a writer.
+ */
+final class CsvDiffWriter {
+
+    private static final String DETAILS_SEPARATOR = "; ";
+
+    private final Writer out;
+
+    private CsvDiffWriter(Writer out) {
+        this.out = out;
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        new CsvDiffWriter(out).write(result);
+    }
+
+    private void write(DiffResult result) throws IOException {
+        // Header
+        out.write("Category,Path,Method,Element,Contract Design First (Reference),Generated Contract,Is Breaking\n");
+
+        // Missing Operations (those that couldn't be found at all)
+        for (String missingOp : result.missingOperationIds()) {
+            out.write("Missing Operation,,,");
+            cell(missingOp);
+            out.write(",PRESENT,ABSENT,TRUE\n");
+        }
+
+        // Structure Changes
+        for (StructureChange change : result.structureChanges()) {
+            out.write("Structure,");
+            cell(change.path());
+            out.write(',');
+            cell(change.method());
+            out.write(',');
+            cell(change.changeType());
+            out.write(',');
+            if ("REMOVED".equals(change.changeType())) {
+                out.write("PRESENT,ABSENT,");
+            } else if ("NEW".equals(change.changeType())) {
+                out.write("ABSENT,PRESENT,");
+            } else {
+                out.write("MATCH (Structural change),");
+                joinedCell(change.details());
+                out.write(',');
+            }
+            out.write(Boolean.toString(change.isBreaking()));
+            out.write('\n');
+        }
+
+        // Metadata Changes
+        for (MetadataChange change : result.metadataChanges()) {
+            out.write("Metadata,");
+            cell(change.path());
+            out.write(',');
+            cell(change.method());
+            out.write(',');
+            cell(change.field());
+            out.write(',');
+            cell(change.designFirstValue());
+            out.write(',');
+            cell(change.generatedValue());
+            out.write(",FALSE\n");
+        }
+    }
+
+    private void cell(String value) throws IOException {
+        if (value == null) return;
+        if (!needsQuoting(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        writeQuoted(value);
+        out.write('"');
+    }
+
+    // Same output as cell(String.join("; ", values)) without building the joined string
+    private void joinedCell(List<String> values) throws IOException {
+        boolean quote = false;
+        for (String value : values) {
+            if (needsQuoting(value)) {
+                quote = true;
+                break;
+            }
+        }
+        if (quote) out.write('"');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.write(DETAILS_SEPARATOR);
+            if (quote) writeQuoted(values.get(i));
+            else out.write(values.get(i));
+        }
+        if (quote) out.write('"');
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collapses whitespace in every human-written description of a spec (operations, parameters,
+ * request bodies, responses, headers and schemas, inline or in components) so that reformatting
+ * alone never shows up as a change. Strings that are already normalized are kept as-is.
+ */
+final class DescriptionNormalizer {
+
+    // Each schema instance is normalized once, however many places share it
+    private final SchemaTraversal<Schema, Void> schemas = new SchemaTraversal<>(DescriptionNormalizer::expandSchema);
+
+    private DescriptionNormalizer() {
+    }
+
+    static void normalize(OpenAPI openAPI) {
+        new DescriptionNormalizer().walk(openAPI);
+    }
+
+    private void walk(OpenAPI openAPI) {
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().values().forEach(pathItem -> {
+                parameters(pathItem.getParameters());
+                pathItem.readOperations().forEach(this::operation);
+            });
+        }
+        Components components = openAPI.getComponents();
+        if (components != null) {
+            if (components.getSchemas() != null) components.getSchemas().values().forEach(this::schema);
+            if (components.getParameters() != null) components.getParameters().values().forEach(this::parameter);
+            if (components.getRequestBodies() != null) components.getRequestBodies().values().forEach(this::requestBody);
+            if (components.getResponses() != null) components.getResponses().values().forEach(this::response);
+            if (components.getHeaders() != null) components.getHeaders().values().forEach(this::header);
+        }
+    }
+
+    /**
+     * Same result as {@code text.replaceAll("\\s+", " ").trim()} in a single scan, returning
+     * {@code text} itself when there is nothing to collapse or trim.
+     */
+    static String collapseWhitespace(String text) {
+        if (text == null) return null;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isWhitespace(c) && (c != ' ' || (i + 1 < length && isWhitespace(text.charAt(i + 1))))) break;
+            i++;
+        }
+        if (i == length) return text.trim();
+
+        StringBuilder collapsed = new StringBuilder(length);
+        collapsed.append(text, 0, i);
+        boolean inRun = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (!isWhitespace(c)) {
+                collapsed.append(c);
+                inRun = false;
+            } else if (!inRun) {
+                collapsed.append(' ');
+                inRun = true;
+            }
+        }
+
+        int start = 0;
+        int end = collapsed.length();
+        while (start < end && collapsed.charAt(start) <= ' ') start++;
+        while (end > start && collapsed.charAt(end - 1) <= ' ') end--;
+        return collapsed.substring(start, end);
+    }
+
+    // The characters matched by the regex class \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private void operation(Operation operation) {
+        operation.setDescription(collapseWhitespace(operation.getDescription()));
+        operation.setSummary(collapseWhitespace(operation.getSummary()));
+        parameters(operation.getParameters());
+        requestBody(operation.getRequestBody());
+        if (operation.getResponses() != null) {
+            operation.getResponses().values().forEach(this::response);
+        }
+    }
+
+    private void parameters(List<Parameter> parameters) {
+        if (parameters != null) parameters.forEach(this::parameter);
+    }
+
+    private void parameter(Parameter parameter) {
+        if (parameter == null) return;
+        parameter.setDescription(collapseWhitespace(parameter.getDescription()));
+        schema(parameter.getSchema());
+        content(parameter.getContent());
+    }
+
+    private void requestBody(RequestBody requestBody) {
+        if (requestBody == null) return;
+        requestBody.setDescription(collapseWhitespace(requestBody.getDescription()));
+        content(requestBody.getContent());
+    }
+
+    private void response(ApiResponse response) {
+        if (response == null) return;
+        response.setDescription(collapseWhitespace(response.getDescription()));
+        content(response.getContent());
+        if (response.getHeaders() != null) response.getHeaders().values().forEach(this::header);
+    }
+
+    private void header(Header header) {
+        if (header == null) return;
+        header.setDescription(collapseWhitespace(header.getDescription()));
+        schema(header.getSchema());
+    }
+
+    private void content(Content content) {
+        if (content == null) return;
+        for (MediaType mediaType : content.values()) {
+            if (mediaType != null) schema(mediaType.getSchema());
+        }
+    }
+
+    private void schema(Schema schema) {
+        schemas.walk(schema, "");
+    }
+
+    private static void expandSchema(Schema schema, SchemaTraversal.Children<Schema, Void> children) {
+        schema.setDescription(collapseWhitespace(schema.getDescription()));
+        Map<String, Schema> properties = schema.getProperties();
+        if (properties != null) properties.values().forEach(property -> children.descend("", property));
+        children.descend("", schema.getItems());
+        descendAll(schema.getAllOf(), children);
+        descendAll(schema.getOneOf(), children);
+        descendAll(schema.getAnyOf(), children);
+        children.descend("", schema.getNot());
+        if (schema.getAdditionalProperties() instanceof Schema additional) children.descend("", additional);
+    }
+
+    private static void descendAll(List<Schema> schemas, SchemaTraversal.Children<Schema, Void> children) {
+        if (schemas != null) schemas.forEach(schema -> children.descend("", schema));
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headless entry point for pipelines: same compare as {@link MainView}, without a Vaadin session.
+ */
+@RestController
+@RequestMapping("/api/diff")
+public class DiffController {
+
+    public record CompareRequest(String reference, String generated) {}
+
+    private final OpenApiDiffService diffService;
+    private final CompareScheduler compareScheduler;
+    private final ContractIngestor ingestor;
+
+    public DiffController(OpenApiDiffService diffService, CompareScheduler compareScheduler, ContractIngestor ingestor) {
+        this.diffService = diffService;
+        this.compareScheduler = compareScheduler;
+        this.ingestor = ingestor;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> compareMultipart(@RequestPart("reference") Part reference,
+                                                                  @RequestPart("generated") Part generated,
+                                                                  @RequestParam(defaultValue = "false") boolean incremental,
+                                                                  @RequestParam(defaultValue = "true") boolean sharded,
+                                                                  @RequestParam(defaultValue = "false") boolean byComponent,
+                                                                  @RequestParam(defaultValue = "0") int failFast,
+                                                                  @RequestParam(defaultValue = "json") String format) throws Exception {
+        return compare(read(reference, "reference"), read(generated, "generated"), new CompareOptions(incremental, sharded, byComponent, failFast), format);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> compareJson(@RequestBody CompareRequest request,
+                                                             @RequestParam(defaultValue = "false") boolean incremental,
+                                                             @RequestParam(defaultValue = "true") boolean sharded,
+                                                             @RequestParam(defaultValue = "false") boolean byComponent,
+                                                             @RequestParam(defaultValue = "0") int failFast,
+                                                             @RequestParam(defaultValue = "json") String format) throws Exception {
+        return compare(request.reference(), request.generated(), new CompareOptions(incremental, sharded, byComponent, failFast), format);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalidContract(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(CompareRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleRejected(CompareRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    private ResponseEntity<StreamingResponseBody> compare(String reference, String generated, CompareOptions options, String format) throws Exception {
+        if (reference == null || reference.isBlank() || generated == null || generated.isBlank()) {
+            throw new IllegalArgumentException("Both 'reference' and 'generated' contracts are required.");
+        }
+        ReportFormat reportFormat = ReportFormat.of(format);
+        DiffResult result = compareScheduler.compare(reference, generated, options);
+        MediaType contentType = MediaType.parseMediaType(reportFormat.contentType());
+        if ("text".equals(contentType.getType())) {
+            contentType = new MediaType(contentType, StandardCharsets.UTF_8);
+        }
+        return ResponseEntity.ok().contentType(contentType)
+                .body(out -> diffService.export(result, reportFormat, out));
+    }
+
+    // The declared size rejects most oversized parts before reading; the capped read covers the rest
+    private String read(Part part, String source) {
+        ingestor.checkSize(part.getSize(), source);
+        try (InputStream in = part.getInputStream()) {
+            return ingestor.read(in, source);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.DiffHistoryStore.Change;
+import io.github.chetana.openapi.diff.DiffHistoryStore.Run;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Read-only queries over the compares recorded by {@link DiffHistoryStore}.
+ */
+@RestController
+@RequestMapping("/api/history")
+public class DiffHistoryController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final DiffHistoryStore history;
+    private final OpenApiDiffService diffService;
+
+    public DiffHistoryController(DiffHistoryStore history, OpenApiDiffService diffService) {
+        this.history = history;
+        this.diffService = diffService;
+    }
+
+    @GetMapping("/runs")
+    public List<Run> runs(@RequestParam(required = false) String service,
+                          @RequestParam(defaultValue = "50") int limit) {
+        return history.runs(service, limit(limit));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<StreamingResponseBody> run(@PathVariable long id,
+                                                     @RequestParam(defaultValue = "json") String format) {
+        ReportFormat reportFormat = ReportFormat.of(format);
+        DiffResult result = history.result(id);
+        if (result == null) return ResponseEntity.notFound().build();
+        MediaType contentType = MediaType.parseMediaType(reportFormat.contentType());
+        if ("text".equals(contentType.getType())) {
+            contentType = new MediaType(contentType, StandardCharsets.UTF_8);
+        }
+        return ResponseEntity.ok().contentType(contentType)
+                .body(out -> diffService.export(result, reportFormat, out));
+    }
+
+    @GetMapping("/changes")
+    public List<Change> changes(@RequestParam(required = false) String service,
+                                @RequestParam(required = false) String path,
+                                @RequestParam(required = false) String method,
+                                @RequestParam(required = false) String changeType,
+                                @RequestParam(required = false) Boolean breaking,
+                                @RequestParam(defaultValue = "1000") int limit) {
+        return history.changes(service, path, method, changeType, breaking, limit(limit));
+    }
+
+    /** When an operation of a service first showed a breaking change. */
+    @GetMapping("/first-breaking")
+    public ResponseEntity<Change> firstBreaking(@RequestParam String service,
+                                                @RequestParam String path,
+                                                @RequestParam String method) {
+        Change change = history.firstBreaking(service, path, method);
+        return change != null ? ResponseEntity.ok(change) : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleInvalidQuery(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    private static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,393 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+import jakarta.annotation.PreDestroy;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare results kept in an embedded H2 database, one run per distinct (reference, generated)
+ * content pair. A run stores the whole {@link DiffResult} and one indexed row per changed
+ * operation and change type, so history queries by service, path, method or change type read
+ * an index instead of decoding results. The service of a run is the reference's
+ * {@code info.title}. Runs are stamped with the {@link #RESULT_VERSION} that computed them, and
+ * runs older than the retention period are pruned.
+ *
+ * <p>The store is off unless {@code openapi-diff.history.enabled} is set. It then lives in memory,
+ * or in a file database under {@code openapi-diff.history.dir}, which must be an absolute path so
+ * that where the history lands does not depend on the working directory.
+ */
+@Component
+public class DiffHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DiffHistoryStore.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Metadata-only changes of an operation are indexed under this change type
+    static final String METADATA = "METADATA";
+
+    /**
+     * Version of what a compare extracts and of the stored result format, bumped whenever either
+     * changes. A pair is only served from a run of the current version: runs of other versions
+     * stay in the history, but a new compare of their pair is computed and stored again. Runs
+     * stored before versioning have version 0.
+     */
+    static final int RESULT_VERSION = 1;
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private static final String[] SCHEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS diff_run (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                service VARCHAR(512) NOT NULL,
+                reference_hash CHAR(64) NOT NULL,
+                generated_hash CHAR(64) NOT NULL,
+                generated_location VARCHAR(2048),
+                compared_at TIMESTAMP NOT NULL,
+                is_different BOOLEAN NOT NULL,
+                structure_changes INT NOT NULL,
+                breaking_changes INT NOT NULL,
+                metadata_changes INT NOT NULL,
+                result CLOB NOT NULL,
+                result_version INT NOT NULL DEFAULT 0,
+                CONSTRAINT diff_run_result UNIQUE (reference_hash, generated_hash, result_version)
+            )""",
+            // Databases created before runs were versioned
+            "ALTER TABLE diff_run ADD COLUMN IF NOT EXISTS result_version INT NOT NULL DEFAULT 0",
+            "ALTER TABLE diff_run DROP CONSTRAINT IF EXISTS diff_run_inputs",
+            "ALTER TABLE diff_run ADD CONSTRAINT IF NOT EXISTS diff_run_result UNIQUE (reference_hash, generated_hash, result_version)",
+            "CREATE INDEX IF NOT EXISTS diff_run_compared_at ON diff_run (compared_at)",
+            "CREATE INDEX IF NOT EXISTS diff_run_service ON diff_run (service, compared_at)",
+            """
+            CREATE TABLE IF NOT EXISTS diff_change (
+                run_id BIGINT NOT NULL REFERENCES diff_run (id) ON DELETE CASCADE,
+                service VARCHAR(512) NOT NULL,
+                compared_at TIMESTAMP NOT NULL,
+                method VARCHAR(16) NOT NULL,
+                path VARCHAR(2048) NOT NULL,
+                change_type VARCHAR(16) NOT NULL,
+                breaking BOOLEAN NOT NULL
+            )""",
+            // "When did this operation first break": served from the index alone
+            "CREATE INDEX IF NOT EXISTS diff_change_operation ON diff_change (service, path, method, breaking, compared_at)",
+            "CREATE INDEX IF NOT EXISTS diff_change_type ON diff_change (service, change_type, compared_at)",
+            "CREATE INDEX IF NOT EXISTS diff_change_run ON diff_change (run_id)"
+    };
+
+    private static final String RUN_COLUMNS = "id, service, reference_hash, generated_hash, generated_location, compared_at, "
+            + "is_different, structure_changes, breaking_changes, metadata_changes";
+
+    public record Run(long id, String service, String referenceHash, String generatedHash, String generatedLocation,
+                      Instant comparedAt, boolean different, int structureChanges, int breakingChanges, int metadataChanges) {}
+
+    public record Change(long runId, String service, Instant comparedAt, String method, String path, String changeType, boolean breaking) {}
+
+    private final JdbcConnectionPool pool;
+    private final Duration retention;
+    private final ScheduledExecutorService pruner;
+
+    /** A store that keeps nothing, for compares run outside the application (CLI, benchmarks). */
+    public DiffHistoryStore() {
+        this.pool = null;
+        this.retention = Duration.ZERO;
+        this.pruner = null;
+    }
+
+    @Autowired
+    public DiffHistoryStore(@Value("${openapi-diff.history.enabled:false}") boolean enabled,
+                            @Value("${openapi-diff.history.dir:}") String dir,
+                            @Value("${openapi-diff.history.retention:90d}") Duration retention) {
+        if (enabled && !dir.isBlank() && !Path.of(dir).isAbsolute()) {
+            throw new IllegalArgumentException("openapi-diff.history.dir must be an absolute path: " + dir);
+        }
+        JdbcConnectionPool opened = null;
+        if (enabled) {
+            String url = dir.isBlank() ? "jdbc:h2:mem:diff-history;DB_CLOSE_DELAY=-1"
+                    : "jdbc:h2:file:" + Path.of(dir, "diff-history");
+            try {
+                opened = JdbcConnectionPool.create(url, "sa", "");
+                try (Connection connection = opened.getConnection(); Statement statement = connection.createStatement()) {
+                    for (String ddl : SCHEMA) {
+                        statement.execute(ddl);
+                    }
+                }
+                log.info("Diff history stored in {}", url);
+            } catch (SQLException e) {
+                log.warn("Diff history disabled, could not open {}: {}", url, e.getMessage());
+                if (opened != null) opened.dispose();
+                opened = null;
+            }
+        }
+        this.pool = opened;
+        this.retention = retention;
+        if (pool != null && retention.compareTo(Duration.ZERO) > 0) {
+            pruner = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "diff-history-pruner");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pruner.scheduleWithFixedDelay(this::prune, 0, PRUNE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            pruner = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return pool != null;
+    }
+
+    /** The stored result of a previous compare of exactly these contents by this version, or null. */
+    DiffResult find(String referenceHash, String generatedHash) {
+        if (pool == null) return null;
+        try (Connection connection = pool.getConnection();
+             PreparedStatement query = connection.prepareStatement(
+                     "SELECT result FROM diff_run WHERE reference_hash = ? AND generated_hash = ? AND result_version = ?")) {
+            query.setString(1, referenceHash);
+            query.setString(2, generatedHash);
+            query.setInt(3, RESULT_VERSION);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next() ? decode(rows.getString(1)) : null;
+            }
+        } catch (SQLException | IOException e) {
+            log.warn("Could not read the diff history: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a computed result. A pair stored meanwhile by a concurrent compare of the same
+     * contents keeps its first run.
+     */
+    void record(String service, String referenceHash, String generatedHash, String generatedLocation, DiffResult result) {
+        if (pool == null) return;
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long runId = insertRun(connection, service, referenceHash, generatedHash, generatedLocation, now, result);
+                insertChanges(connection, runId, service, now, result);
+                connection.commit();
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            // 23505: unique constraint, the same pair was stored while this one was computed
+            if (!"23505".equals(e.getSQLState())) log.warn("Could not store the compare in the diff history: {}", e.getMessage());
+        } catch (IOException e) {
+            log.warn("Could not store the compare in the diff history: {}", e.getMessage());
+        }
+    }
+
+    /** The most recent runs, of one service or of all when {@code service} is null. */
+    public List<Run> runs(String service, int limit) {
+        String sql = "SELECT " + RUN_COLUMNS + " FROM diff_run"
+                + (service != null ? " WHERE service = ?" : "") + " ORDER BY compared_at DESC, id DESC LIMIT ?";
+        return query(sql, rows -> new Run(rows.getLong(1), rows.getString(2), rows.getString(3), rows.getString(4), rows.getString(5),
+                rows.getTimestamp(6).toInstant(), rows.getBoolean(7), rows.getInt(8), rows.getInt(9), rows.getInt(10)),
+                service != null ? new Object[]{service, limit} : new Object[]{limit});
+    }
+
+    /** The full result of a run, or null if there is no such run. */
+    public DiffResult result(long runId) {
+        List<String> results = query("SELECT result FROM diff_run WHERE id = ?", rows -> rows.getString(1), runId);
+        try {
+            return results.isEmpty() ? null : decode(results.get(0));
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted diff history run " + runId, e);
+        }
+    }
+
+    /**
+     * Indexed changes, oldest first, matching every non-null filter. {@code changeType} is a
+     * structure change type ({@code NEW}, {@code REMOVED}, {@code CHANGED}) or {@value #METADATA}.
+     */
+    public List<Change> changes(String service, String path, String method, String changeType, Boolean breaking, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT run_id, service, compared_at, method, path, change_type, breaking FROM diff_change WHERE TRUE");
+        List<Object> parameters = new ArrayList<>();
+        filter(sql, parameters, "service", service);
+        filter(sql, parameters, "path", path);
+        filter(sql, parameters, "method", method != null ? method.toUpperCase() : null);
+        filter(sql, parameters, "change_type", changeType != null ? changeType.toUpperCase() : null);
+        filter(sql, parameters, "breaking", breaking);
+        sql.append(" ORDER BY compared_at, run_id LIMIT ?");
+        parameters.add(limit);
+        return query(sql.toString(), rows -> new Change(rows.getLong(1), rows.getString(2), rows.getTimestamp(3).toInstant(),
+                rows.getString(4), rows.getString(5), rows.getString(6), rows.getBoolean(7)), parameters.toArray());
+    }
+
+    /** The first run in which an operation of a service had a breaking change, or null. */
+    public Change firstBreaking(String service, String path, String method) {
+        List<Change> changes = changes(service, path, method, null, true, 1);
+        return changes.isEmpty() ? null : changes.get(0);
+    }
+
+    /** Deletes the runs, and their indexed changes, older than the retention period. */
+    int prune() {
+        if (pool == null || retention.compareTo(Duration.ZERO) <= 0) return 0;
+        try (Connection connection = pool.getConnection();
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM diff_run WHERE compared_at < ?")) {
+            delete.setTimestamp(1, Timestamp.from(Instant.now().minus(retention)));
+            int pruned = delete.executeUpdate();
+            if (pruned > 0) log.info("Pruned {} diff history run(s) older than {}", pruned, retention);
+            return pruned;
+        } catch (SQLException e) {
+            log.warn("Could not prune the diff history: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (pruner != null) pruner.shutdownNow();
+        if (pool != null) pool.dispose();
+    }
+
+    private long insertRun(Connection connection, String service, String referenceHash, String generatedHash, String generatedLocation,
+                           Timestamp comparedAt, DiffResult result) throws SQLException, IOException {
+        int breaking = 0;
+        for (StructureChange change : result.structureChanges()) {
+            if (change.isBreaking()) breaking++;
+        }
+        StringWriter json = new StringWriter();
+        DiffResultJsonWriter.write(result, json);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO diff_run (service, reference_hash, generated_hash, generated_location, compared_at, is_different, "
+                        + "structure_changes, breaking_changes, metadata_changes, result, result_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, service);
+            insert.setString(2, referenceHash);
+            insert.setString(3, generatedHash);
+            insert.setString(4, generatedLocation);
+            insert.setTimestamp(5, comparedAt);
+            insert.setBoolean(6, result.isDifferent());
+            insert.setInt(7, result.structureChanges().size());
+            insert.setInt(8, breaking);
+            insert.setInt(9, result.metadataChanges().size());
+            insert.setString(10, json.toString());
+            insert.setInt(11, RESULT_VERSION);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private static void insertChanges(Connection connection, long runId, String service, Timestamp comparedAt, DiffResult result) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO diff_change (run_id, service, compared_at, method, path, change_type, breaking) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (StructureChange change : result.structureChanges()) {
+                addChange(insert, runId, service, comparedAt, change.method(), change.path(), change.changeType(), change.isBreaking());
+            }
+            // One row per operation: its metadata changes are only read back from the full result
+            Set<String> seen = new LinkedHashSet<>();
+            for (MetadataChange change : result.metadataChanges()) {
+                if (seen.add(change.method() + " " + change.path())) {
+                    addChange(insert, runId, service, comparedAt, change.method(), change.path(), METADATA, false);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void addChange(PreparedStatement insert, long runId, String service, Timestamp comparedAt,
+                                  String method, String path, String changeType, boolean breaking) throws SQLException {
+        insert.setLong(1, runId);
+        insert.setString(2, service);
+        insert.setTimestamp(3, comparedAt);
+        insert.setString(4, method);
+        insert.setString(5, path);
+        insert.setString(6, changeType);
+        insert.setBoolean(7, breaking);
+        insert.addBatch();
+    }
+
+    private static void filter(StringBuilder sql, List<Object> parameters, String column, Object value) {
+        if (value == null) return;
+        sql.append(" AND ").append(column).append(" = ?");
+        parameters.add(value);
+    }
+
+    private interface RowMapper<T> {
+        T map(ResultSet rows) throws SQLException;
+    }
+
+    private <T> List<T> query(String sql, RowMapper<T> mapper, Object... parameters) {
+        if (pool == null) return List.of();
+        try (Connection connection = pool.getConnection(); PreparedStatement query = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                query.setObject(i + 1, parameters[i]);
+            }
+            List<T> results = new ArrayList<>();
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    results.add(mapper.map(rows));
+                }
+            }
+            return results;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Diff history query failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Reads back what DiffResultJsonWriter wrote, into the same compact form a compare builds
+    private static DiffResult decode(String json) throws IOException {
+        JsonNode root = MAPPER.readTree(json);
+        StringDictionary dictionary = new StringDictionary();
+        List<StructureChange> structureChanges = new ArrayList<>();
+        for (JsonNode change : root.path("structureChanges")) {
+            structureChanges.add(new StructureChange(dictionary.intern(change.path("method").asText()), dictionary.intern(change.path("path").asText()),
+                    dictionary.intern(change.path("changeType").asText()), ChangeDetails.parse(strings(change.path("details")), dictionary),
+                    change.path("isBreaking").asBoolean()));
+        }
+        List<MetadataChange> metadataChanges = new ArrayList<>();
+        for (JsonNode change : root.path("metadataChanges")) {
+            metadataChanges.add(new MetadataChange(dictionary.intern(change.path("path").asText()), dictionary.intern(change.path("method").asText()),
+                    dictionary.intern(change.path("field").asText()), text(change.path("designFirstValue")), text(change.path("generatedValue"))));
+        }
+        return new DiffResult(metadataChanges, structureChanges, root.path("isDifferent").asBoolean(),
+                strings(root.path("missingOperationIds")), strings(root.path("duplicateOperationIds")));
+    }
+
+    private static String text(JsonNode value) {
+        return value.isNull() || value.isMissingNode() ? null : value.asText();
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>(array.size());
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a {@link DiffResult} as JSON token by token, so the serialized document is never
+ * held in memory as a whole.
+ */
+final class DiffResultJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private DiffResultJsonWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        try (JsonGenerator json = createGenerator(out)) {
+            write(result, json);
+        }
+    }
+
+    static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    static JsonGenerator createGenerator(Writer out) throws IOException {
+        return JSON_FACTORY.createGenerator(out);
+    }
+
+    static void write(DiffResult result, JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeBooleanField("isDifferent", result.isDifferent());
+        json.writeBooleanField("isBreaking", result.isBreaking());
+        writeStrings(json, "missingOperationIds", result.missingOperationIds());
+        writeStrings(json, "duplicateOperationIds", result.duplicateOperationIds());
+
+        json.writeArrayFieldStart("structureChanges");
+        for (StructureChange change : result.structureChanges()) {
+            json.writeStartObject();
+            json.writeStringField("method", change.method());
+            json.writeStringField("path", change.path());
+            json.writeStringField("changeType", change.changeType());
+            json.writeBooleanField("isBreaking", change.isBreaking());
+            writeStrings(json, "details", change.details());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("metadataChanges");
+        for (MetadataChange change : result.metadataChanges()) {
+            json.writeStartObject();
+            json.writeStringField("path", change.path());
+            json.writeStringField("method", change.method());
+            json.writeStringField("field", change.field());
+            json.writeStringField("designFirstValue", change.designFirstValue());
+            json.writeStringField("generatedValue", change.generatedValue());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeStrings(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+}
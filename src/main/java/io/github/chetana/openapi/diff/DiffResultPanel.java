@@ -0,0 +1,160 @@
+package io.github.chetana.openapi.diff;
+
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.details.Details;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result panes of {@link MainView}. Both lists are shown in lazy grids over in-memory data
+ * providers, so the browser only ever receives the rows that are scrolled into view.
+ */
+class DiffResultPanel extends VerticalLayout {
+
+    private static final String ALL = "Tous";
+
+    private final TextField pathFilter = new TextField();
+    private final Select<String> methodFilter = new Select<>();
+    private final Select<String> changeTypeFilter = new Select<>();
+    private final Checkbox breakingOnly = new Checkbox("Breaking uniquement");
+
+    private final Grid<StructureChange> structureGrid = new Grid<>();
+    private final Grid<MetadataChange> metadataGrid = new Grid<>();
+    private final Details structureDetails = new Details();
+    private final Details metadataDetails = new Details();
+
+    private ListDataProvider<StructureChange> structureProvider = DataProvider.ofCollection(List.of());
+    private ListDataProvider<MetadataChange> metadataProvider = DataProvider.ofCollection(List.of());
+
+    DiffResultPanel() {
+        setPadding(false);
+        setSpacing(true);
+
+        pathFilter.setPlaceholder("Filtrer par chemin...");
+        pathFilter.setClearButtonVisible(true);
+        pathFilter.setValueChangeMode(ValueChangeMode.LAZY);
+        pathFilter.addValueChangeListener(e -> applyFilters());
+
+        methodFilter.setLabel("Méthode");
+        methodFilter.setItems(ALL, "GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", "TRACE");
+        methodFilter.setValue(ALL);
+        methodFilter.addValueChangeListener(e -> applyFilters());
+
+        changeTypeFilter.setLabel("Type de changement");
+        changeTypeFilter.setItems(ALL, "NEW", "REMOVED", "CHANGED");
+        changeTypeFilter.setValue(ALL);
+        changeTypeFilter.addValueChangeListener(e -> applyFilters());
+
+        breakingOnly.addValueChangeListener(e -> applyFilters());
+
+        HorizontalLayout filters = new HorizontalLayout(pathFilter, methodFilter, changeTypeFilter, breakingOnly);
+        filters.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+        filters.setWidthFull();
+        filters.setFlexGrow(1, pathFilter);
+
+        setupMetadataGrid();
+        setupStructureGrid();
+
+        metadataDetails.setSummaryText("Changements de Métadonnées (Summary/Description)");
+        metadataDetails.add(metadataGrid);
+        metadataDetails.setOpened(true);
+        metadataDetails.setWidthFull();
+
+        structureDetails.setSummaryText("Rapport de Structure (Changements techniques)");
+        structureDetails.add(structureGrid);
+        structureDetails.setOpened(true);
+        structureDetails.setWidthFull();
+
+        add(filters, metadataDetails, structureDetails);
+    }
+
+    void setResult(DiffResult result) {
+        structureProvider = DataProvider.ofCollection(result.structureChanges());
+        metadataProvider = DataProvider.ofCollection(result.metadataChanges());
+        structureGrid.setItems(structureProvider);
+        metadataGrid.setItems(metadataProvider);
+        applyFilters();
+    }
+
+    private void setupStructureGrid() {
+        structureGrid.addColumn(LitRenderer.<StructureChange>of("<span>${item.icon}</span>")
+                        .withProperty("icon", change -> switch (change.changeType()) {
+                            case "NEW" -> "➕";
+                            case "REMOVED" -> "❌";
+                            default -> change.isBreaking() ? "⚠️" : "🔄";
+                        }))
+                .setWidth("50px").setFlexGrow(0);
+        structureGrid.addColumn(StructureChange::method).setHeader("Méthode").setWidth("100px").setFlexGrow(0);
+        structureGrid.addColumn(StructureChange::path).setHeader("Chemin").setFlexGrow(2).setResizable(true);
+        structureGrid.addColumn(StructureChange::changeType).setHeader("Type").setWidth("110px").setFlexGrow(0);
+        structureGrid.addColumn(change -> change.details().size() == 1 ? change.details().get(0) : change.details().size() + " détails")
+                .setHeader("Détails").setFlexGrow(1);
+
+        // Detail lines are only sent for rows the user expands
+        structureGrid.setItemDetailsRenderer(LitRenderer.<StructureChange>of(
+                        "<div style='font-size: 0.9em; white-space: pre; color: ${item.color}'>${item.details}</div>")
+                .withProperty("details", change -> "• " + String.join("\n• ", change.details()))
+                .withProperty("color", change -> change.isBreaking() ? "var(--lumo-error-color)" : "inherit"));
+        structureGrid.setDetailsVisibleOnClick(true);
+        structureGrid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES, GridVariant.LUMO_COMPACT);
+        structureGrid.setHeight("450px");
+        structureGrid.setWidthFull();
+    }
+
+    private void setupMetadataGrid() {
+        String valueTemplate = "<pre style='white-space: pre-wrap; word-break: break-word; margin: 0; "
+                + "background-color: var(--lumo-contrast-5pct); padding: 6px; border-radius: 4px'>${item.%s}</pre>";
+        metadataGrid.addColumn(change -> change.method() + " " + change.path())
+                .setHeader("Opération").setFlexGrow(1).setResizable(true);
+        metadataGrid.addColumn(MetadataChange::field).setHeader("Élément").setFlexGrow(1).setResizable(true);
+        metadataGrid.addColumn(LitRenderer.<MetadataChange>of(valueTemplate.formatted("left"))
+                        .withProperty("left", MetadataChange::designFirstValue))
+                .setHeader("📜 Contract Design First").setFlexGrow(2);
+        metadataGrid.addColumn(LitRenderer.<MetadataChange>of(valueTemplate.formatted("right"))
+                        .withProperty("right", MetadataChange::generatedValue))
+                .setHeader("⚙️ Contrat généré").setFlexGrow(2);
+        metadataGrid.addThemeVariants(GridVariant.LUMO_WRAP_CELL_CONTENT, GridVariant.LUMO_ROW_STRIPES);
+        metadataGrid.setHeight("450px");
+        metadataGrid.setWidthFull();
+    }
+
+    private void applyFilters() {
+        String path = pathFilter.getValue() == null ? "" : pathFilter.getValue().trim().toLowerCase(Locale.ROOT);
+        String method = methodFilter.getValue();
+        String changeType = changeTypeFilter.getValue();
+        boolean breaking = breakingOnly.getValue();
+
+        structureProvider.setFilter(change -> matches(path, method, change.path(), change.method())
+                && (ALL.equals(changeType) || changeType.equals(change.changeType()))
+                && (!breaking || change.isBreaking()));
+        // Metadata changes are never breaking and carry no change type
+        metadataProvider.setFilter(change -> matches(path, method, change.path(), change.method())
+                && !breaking && (ALL.equals(changeType) || "CHANGED".equals(changeType)));
+
+        structureDetails.setSummaryText("Rapport de Structure (Changements techniques) — "
+                + structureProvider.size(new Query<>()) + " / " + structureProvider.getItems().size());
+        metadataDetails.setSummaryText("Changements de Métadonnées (Summary/Description) — "
+                + metadataProvider.size(new Query<>()) + " / " + metadataProvider.getItems().size());
+    }
+
+    private static boolean matches(String path, String method, String changePath, String changeMethod) {
+        return (path.isEmpty() || (changePath != null && changePath.toLowerCase(Locale.ROOT).contains(path)))
+                && (method == null || ALL.equals(method) || method.equals(changeMethod));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.chetana.openapi.diff;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Work-stealing pool shared by every compare that splits its diff into operation shards, so
+ * that concurrent compares together never use more threads than configured. Specs below
+ * {@code min-operations} are not worth the copies a shard needs and are diffed in one piece.
+ */
+@Component
+public class DiffShardPool {
+
+    // Fewer operations per shard and the deep copies cost more than the diff they spread
+    private static final int MIN_OPERATIONS_PER_SHARD = 25;
+    // More shards than threads, so that a shard of heavy operations does not leave cores idle
+    private static final int SHARDS_PER_THREAD = 4;
+
+    private final int minOperations;
+    private final ForkJoinPool pool;
+
+    public DiffShardPool() {
+        this(0, 200);
+    }
+
+    @Autowired
+    public DiffShardPool(@Value("${openapi-diff.shard.parallelism:0}") int parallelism,
+                         @Value("${openapi-diff.shard.min-operations:200}") int minOperations) {
+        this.minOperations = minOperations;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("diff-shard-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /** How many shards a diff of {@code operations} operations should be split into; 1 means no split. */
+    int shardCount(int operations) {
+        if (pool.getParallelism() < 2 || operations < minOperations) return 1;
+        return Math.max(1, Math.min(pool.getParallelism() * SHARDS_PER_THREAD, operations / MIN_OPERATIONS_PER_SHARD));
+    }
+
+    /**
+     * Runs {@code tasks} on the pool and returns their results in the same order. An interrupted
+     * caller cancels the shards not yet started.
+     */
+    <T> List<T> invokeAll(List<Callable<T>> tasks) throws InterruptedException {
+        List<ForkJoinTask<T>> submitted = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            submitted.add(pool.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (ForkJoinTask<T> task : submitted) {
+                results.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            submitted.forEach(task -> task.cancel(false));
+            throw e;
+        } catch (ExecutionException e) {
+            submitted.forEach(task -> task.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException("Diff shard failed", e.getCause());
+        } catch (CancellationException e) {
+            submitted.forEach(task -> task.cancel(false));
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import org.openapitools.openapidiff.core.compare.SchemaDiff;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Makes ahead of time the changes the diff engine makes to the specs it compares: the root
+ * security requirements are copied onto the operations that declare none, and allOf/anyOf
+ * schemas are merged into the schema declaring them. A rewritten spec diffs exactly as the
+ * original did and the engine finds nothing left to change in it, so one instance can be
+ * shared by any number of compares, concurrent ones included.
+ */
+final class EngineRewrites {
+
+    private final Components components;
+    // Each schema instance is merged once, however many places share it
+    private final SchemaTraversal<Schema, Void> schemas = new SchemaTraversal<>(this::expandSchema);
+
+    private EngineRewrites(Components components) {
+        this.components = components;
+    }
+
+    static void apply(OpenAPI openAPI) {
+        pushDownSecurity(openAPI);
+        mergeComposedSchemas(openAPI);
+    }
+
+    /** The schema half of {@link #apply}, for a spec whose root security must stay where it is. */
+    static void mergeComposedSchemas(OpenAPI openAPI) {
+        new EngineRewrites(openAPI.getComponents()).walk(openAPI);
+    }
+
+    // As OpenApiDiff.preProcess, down to the distinct root list shared by the operations
+    private static void pushDownSecurity(OpenAPI openAPI) {
+        List<SecurityRequirement> security = openAPI.getSecurity();
+        if (security == null) return;
+        List<SecurityRequirement> distinct = security.stream().distinct().collect(Collectors.toList());
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().values().forEach(pathItem -> pathItem.readOperations().forEach(operation -> {
+                operation.setSecurity(operation.getSecurity() == null ? distinct : operation.getSecurity().stream().distinct().collect(Collectors.toList()));
+            }));
+        }
+        openAPI.setSecurity(null);
+    }
+
+    private void walk(OpenAPI openAPI) {
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().values().forEach(pathItem -> {
+                parameters(pathItem.getParameters());
+                pathItem.readOperations().forEach(this::operation);
+            });
+        }
+        if (components != null) {
+            if (components.getSchemas() != null) components.getSchemas().values().forEach(this::schema);
+            if (components.getParameters() != null) components.getParameters().values().forEach(this::parameter);
+            if (components.getRequestBodies() != null) components.getRequestBodies().values().forEach(this::requestBody);
+            if (components.getResponses() != null) components.getResponses().values().forEach(this::response);
+            if (components.getHeaders() != null) components.getHeaders().values().forEach(this::header);
+        }
+    }
+
+    private void operation(Operation operation) {
+        parameters(operation.getParameters());
+        requestBody(operation.getRequestBody());
+        if (operation.getResponses() != null) {
+            operation.getResponses().values().forEach(this::response);
+        }
+    }
+
+    private void parameters(List<Parameter> parameters) {
+        if (parameters != null) parameters.forEach(this::parameter);
+    }
+
+    private void parameter(Parameter parameter) {
+        if (parameter == null) return;
+        schema(parameter.getSchema());
+        content(parameter.getContent());
+    }
+
+    private void requestBody(RequestBody requestBody) {
+        if (requestBody != null) content(requestBody.getContent());
+    }
+
+    private void response(ApiResponse response) {
+        if (response == null) return;
+        content(response.getContent());
+        if (response.getHeaders() != null) response.getHeaders().values().forEach(this::header);
+    }
+
+    private void header(Header header) {
+        if (header == null) return;
+        schema(header.getSchema());
+        content(header.getContent());
+    }
+
+    private void content(Content content) {
+        if (content == null) return;
+        for (MediaType mediaType : content.values()) {
+            if (mediaType != null) schema(mediaType.getSchema());
+        }
+    }
+
+    private void schema(Schema schema) {
+        schemas.walk(schema, "");
+    }
+
+    // Merged before its children are listed: the parts' properties are walked as its own
+    private void expandSchema(Schema schema, SchemaTraversal.Children<Schema, Void> children) {
+        EngineMerge.merge(components, schema);
+        Map<String, Schema> properties = schema.getProperties();
+        if (properties != null) properties.values().forEach(property -> children.descend("", property));
+        children.descend("", schema.getItems());
+        descendAll(schema.getAllOf(), children);
+        descendAll(schema.getOneOf(), children);
+        descendAll(schema.getAnyOf(), children);
+        children.descend("", schema.getNot());
+        if (schema.getAdditionalProperties() instanceof Schema additional) children.descend("", additional);
+    }
+
+    private static void descendAll(List<Schema> schemas, SchemaTraversal.Children<Schema, Void> children) {
+        if (schemas != null) schemas.forEach(schema -> children.descend("", schema));
+    }
+
+    /** Only reaches the engine's own merge, which is protected; never instantiated. */
+    private static final class EngineMerge extends SchemaDiff {
+
+        private EngineMerge() {
+            super(null);
+        }
+
+        static void merge(Components components, Schema<?> schema) {
+            resolveComposedSchema(components, schema, new HashSet<>());
+        }
+    }
+}
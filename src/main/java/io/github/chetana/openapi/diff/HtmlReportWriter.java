@@ -0,0 +1,80 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a {@link DiffResult} as a standalone HTML page, one section per operation, for CI
+ * artifacts that are opened in a browser.
+ */
+final class HtmlReportWriter {
+
+    private static final String STYLE = "body{font-family:sans-serif;margin:2em}h2{font-size:1.1em;margin-top:2em}"
+            + "code{background:#f3f3f3;padding:0 .2em}.breaking{color:#c62828}table{border-collapse:collapse}"
+            + "td,th{border:1px solid #ccc;padding:.3em .6em;text-align:left;vertical-align:top}";
+
+    private HtmlReportWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        boolean different = result.isDifferent() || !result.missingOperationIds().isEmpty();
+        out.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>OpenAPI Contract Diff</title><style>");
+        out.write(STYLE);
+        out.write("</style></head><body>\n<h1>");
+        out.write(different ? "Differences detected" : "No differences");
+        out.write("</h1>\n<p>" + result.structureChanges().size() + " structure change(s), "
+                + result.metadataChanges().size() + " metadata change(s)</p>\n");
+        if (!result.missingOperationIds().isEmpty()) {
+            out.write("<p class=\"breaking\">Missing operations: " + escape(String.join(", ", result.missingOperationIds())) + "</p>\n");
+        }
+        if (!result.duplicateOperationIds().isEmpty()) {
+            out.write("<p>Duplicate operationIds in generated contract: " + escape(String.join(", ", result.duplicateOperationIds())) + "</p>\n");
+        }
+
+        for (OperationFindings operation : OperationFindings.of(result)) {
+            out.write("<h2" + (operation.isBreaking() ? " class=\"breaking\"" : "") + "><code>" + escape(operation.method()) + "</code> "
+                    + escape(operation.path()) + "</h2>\n");
+            for (StructureChange change : operation.structureChanges()) {
+                out.write("<p><strong>" + escape(change.changeType()) + "</strong>" + (change.isBreaking() ? " <span class=\"breaking\">(breaking)</span>" : "") + "</p>\n<ul>\n");
+                for (String detail : change.details()) {
+                    out.write("<li><pre style=\"margin:0\">" + escape(detail) + "</pre></li>\n");
+                }
+                out.write("</ul>\n");
+            }
+            if (!operation.metadataChanges().isEmpty()) {
+                out.write("<table><tr><th>Element</th><th>Reference</th><th>Generated</th></tr>\n");
+                for (MetadataChange change : operation.metadataChanges()) {
+                    out.write("<tr><td>" + escape(change.field()) + "</td><td>" + escape(change.designFirstValue())
+                            + "</td><td>" + escape(change.generatedValue()) + "</td></tr>\n");
+                }
+                out.write("</table>\n");
+            }
+        }
+        out.write("</body></html>\n");
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                default -> null;
+            };
+            if (replacement == null) {
+                if (escaped != null) escaped.append(value.charAt(i));
+                continue;
+            }
+            if (escaped == null) escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            escaped.append(replacement);
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+}
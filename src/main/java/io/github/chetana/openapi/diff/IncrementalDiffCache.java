@@ -0,0 +1,59 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-operation results of the last incremental compare of each (reference, generated source)
+ * pair, with the fingerprints they were computed from. The reference content is part of the
+ * key, so the next compare of the same pair only sends the generated operations whose
+ * fingerprints moved through the diff engine. Least recently used snapshots are dropped beyond
+ * the configured count.
+ */
+@Component
+public class IncrementalDiffCache {
+
+    record OperationResult(StructureChange structureChange, List<MetadataChange> metadataChanges, boolean different) {
+        static final OperationResult UNCHANGED = new OperationResult(null, List.of(), false);
+    }
+
+    record Snapshot(String globalFingerprint,
+                    Map<OperationKey, String> generatedFingerprints,
+                    Map<OperationKey, OperationResult> results,
+                    boolean extensionsDifferent) {}
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+    public IncrementalDiffCache() {
+        this(16);
+    }
+
+    @Autowired
+    public IncrementalDiffCache(@Value("${openapi-diff.incremental.max-entries:16}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    synchronized Snapshot get(String key) {
+        return snapshots.get(key);
+    }
+
+    synchronized void put(String key, Snapshot snapshot) {
+        if (maxEntries <= 0) return;
+        snapshots.put(key, snapshot);
+        while (snapshots.size() > maxEntries) {
+            snapshots.remove(snapshots.keySet().iterator().next());
+        }
+    }
+
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a {@link DiffResult} as a JUnit XML report so CI servers show contract drift as test
+ * failures: one failing test case per changed operation, typed {@code breaking} or
+ * {@code changed}, or a single passing case when the contracts match.
+ */
+final class JUnitReportWriter {
+
+    private static final XMLOutputFactory XML_FACTORY = XMLOutputFactory.newFactory();
+    private static final String SUITE = "openapi-contract-diff";
+
+    private JUnitReportWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        try {
+            XMLStreamWriter xml = XML_FACTORY.createXMLStreamWriter(out);
+            write(result, xml);
+            xml.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write the JUnit report", e);
+        }
+    }
+
+    private static void write(DiffResult result, XMLStreamWriter xml) throws XMLStreamException {
+        List<OperationFindings> operations = OperationFindings.of(result);
+        int failures = operations.size();
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeCharacters("\n");
+        xml.writeStartElement("testsuite");
+        xml.writeAttribute("name", SUITE);
+        xml.writeAttribute("tests", Integer.toString(Math.max(1, failures)));
+        xml.writeAttribute("failures", Integer.toString(failures));
+        xml.writeAttribute("errors", "0");
+        xml.writeAttribute("skipped", "0");
+        xml.writeCharacters("\n");
+
+        if (!result.duplicateOperationIds().isEmpty()) {
+            xml.writeStartElement("system-out");
+            xml.writeCharacters("Duplicate operationIds in generated contract: " + String.join(", ", result.duplicateOperationIds()));
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+        }
+
+        if (operations.isEmpty()) {
+            testCase(xml, "contract");
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+        }
+        for (OperationFindings operation : operations) {
+            testCase(xml, operation.method() + " " + operation.path());
+            xml.writeStartElement("failure");
+            xml.writeAttribute("type", operation.isBreaking() ? "breaking" : "changed");
+            xml.writeAttribute("message", summary(operation));
+            xml.writeCharacters(details(operation));
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+        }
+
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+        xml.writeEndDocument();
+    }
+
+    private static void testCase(XMLStreamWriter xml, String name) throws XMLStreamException {
+        xml.writeStartElement("testcase");
+        xml.writeAttribute("classname", SUITE);
+        xml.writeAttribute("name", name);
+    }
+
+    private static String summary(OperationFindings operation) {
+        StringBuilder summary = new StringBuilder();
+        for (StructureChange change : operation.structureChanges()) {
+            if (!summary.isEmpty()) summary.append(", ");
+            summary.append(change.changeType());
+        }
+        if (!operation.metadataChanges().isEmpty()) {
+            if (!summary.isEmpty()) summary.append(", ");
+            summary.append(operation.metadataChanges().size()).append(" description change(s)");
+        }
+        return summary.toString();
+    }
+
+    private static String details(OperationFindings operation) {
+        StringBuilder details = new StringBuilder();
+        for (StructureChange change : operation.structureChanges()) {
+            change.details().forEach(detail -> details.append(detail).append('\n'));
+        }
+        for (MetadataChange change : operation.metadataChanges()) {
+            details.append(change.field()).append(": '").append(change.designFirstValue())
+                    .append("' -> '").append(change.generatedValue()).append("'\n");
+        }
+        return details.toString();
+    }
+}
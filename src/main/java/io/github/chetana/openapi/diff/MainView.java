@@ -1,38 +1,70 @@
 package io.github.chetana.openapi.diff;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.details.Details;
 import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H1;
-import com.vaadin.flow.component.html.Pre;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
-import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.router.Route;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
 @Route("")
 public class MainView extends VerticalLayout {
 
     private final OpenApiDiffService diffService;
+    private final CompareScheduler compareScheduler;
+    private final ContractWatcher contractWatcher;
 
-    private final TextArea pmContractArea = new TextArea("Contrat OpenAPI de Référence (Design-First)");
-    private final TextArea generatedContractArea = new TextArea("Contrat OpenAPI Généré (URL ou JSON/YAML brut)");
+    private final ContractInput pmContractInput;
+    private final ContractInput generatedContractInput;
     private final Button compareButton = new Button("Comparer les contrats");
+    private final Button cancelButton = new Button("Annuler");
+    private final ProgressBar progressBar = new ProgressBar();
+    private final Span phaseLabel = new Span();
+    private final HorizontalLayout progressLayout = new HorizontalLayout(progressBar, phaseLabel, cancelButton);
     private final Button exportCsvButton = new Button("Exporter en CSV");
     private final Anchor exportAnchor = new Anchor();
+    private final Button exportNdjsonButton = new Button("Exporter en NDJSON");
+    private final Anchor exportNdjsonAnchor = new Anchor();
+    private final TextField watchReferenceField = new TextField("Contrat de référence (fichier ou dossier)");
+    private final TextField watchGeneratedField = new TextField("Contrat généré (fichier ou dossier)");
+    private final Button watchButton = new Button("Surveiller");
+    private final Span watchLabel = new Span();
     
     private final VerticalLayout resultsLayout = new VerticalLayout();
-    private final VerticalLayout structureChangesLayout = new VerticalLayout();
-    private final VerticalLayout metadataChangesLayout = new VerticalLayout();
+    private final DiffResultPanel resultPanel = new DiffResultPanel();
     private final Span statusLabel = new Span();
+    private final Span duplicatesLabel = new Span();
+
+    private CompareScheduler.Ticket runningCompare;
+    // Bumped on every start/cancel so callbacks from a superseded compare are ignored
+    private int compareGeneration;
+    private ContractWatcher.Watch runningWatch;
     
-    public MainView(OpenApiDiffService diffService) {
+    public MainView(OpenApiDiffService diffService, CompareScheduler compareScheduler, ContractIngestor ingestor, ContractWatcher contractWatcher) {
         this.diffService = diffService;
+        this.compareScheduler = compareScheduler;
+        this.contractWatcher = contractWatcher;
+        this.pmContractInput = new ContractInput(ingestor, "reference", "Contrat OpenAPI de Référence (Design-First)",
+                "Collez le YAML du contrat de référence ici...");
+        this.generatedContractInput = new ContractInput(ingestor, "generated", "Contrat OpenAPI Généré (URL ou JSON/YAML brut)",
+                "Collez le JSON/YAML généré ici, ou l'URL (ex: https://api.prod.com/v3/api-docs)");
 
         setupLayout();
         setupClickListeners();
@@ -46,21 +78,20 @@ public class MainView extends VerticalLayout {
         H1 title = new H1("OpenAPI Contract Diff");
         title.getStyle().set("margin-top", "0");
 
-        pmContractArea.setPlaceholder("Collez le YAML du contrat de référence ici...");
-        pmContractArea.setHeight("300px");
-        pmContractArea.setWidthFull();
-
-        generatedContractArea.setPlaceholder("Collez le JSON/YAML généré ici, ou l'URL (ex: https://api.prod.com/v3/api-docs)");
-        generatedContractArea.setHeight("300px");
-        generatedContractArea.setWidthFull();
-
         compareButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_LARGE);
         compareButton.setWidthFull();
         
-        HorizontalLayout inputsLayout = new HorizontalLayout(pmContractArea, generatedContractArea);
+        progressBar.setIndeterminate(true);
+        progressBar.setWidth("200px");
+        cancelButton.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_TERTIARY);
+        progressLayout.setWidthFull();
+        progressLayout.setAlignItems(Alignment.CENTER);
+        progressLayout.setVisible(false);
+
+        HorizontalLayout inputsLayout = new HorizontalLayout(pmContractInput, generatedContractInput);
         inputsLayout.setWidthFull();
-        inputsLayout.setFlexGrow(1, pmContractArea);
-        inputsLayout.setFlexGrow(1, generatedContractArea);
+        inputsLayout.setFlexGrow(1, pmContractInput);
+        inputsLayout.setFlexGrow(1, generatedContractInput);
 
         resultsLayout.setVisible(false);
         resultsLayout.setPadding(false);
@@ -69,32 +100,43 @@ public class MainView extends VerticalLayout {
         statusLabel.getStyle().set("font-size", "1.2em");
         statusLabel.getStyle().set("flex-grow", "1");
 
+        duplicatesLabel.getStyle().set("color", "var(--lumo-warning-text-color, var(--lumo-secondary-text-color))");
+        duplicatesLabel.setVisible(false);
+
         exportCsvButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
         exportAnchor.add(exportCsvButton);
         exportAnchor.getElement().setAttribute("download", true);
         exportAnchor.setVisible(false);
 
-        HorizontalLayout headerLayout = new HorizontalLayout(statusLabel, exportAnchor);
+        exportNdjsonButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+        exportNdjsonAnchor.add(exportNdjsonButton);
+        exportNdjsonAnchor.getElement().setAttribute("download", true);
+        exportNdjsonAnchor.setVisible(false);
+
+        HorizontalLayout headerLayout = new HorizontalLayout(statusLabel, exportAnchor, exportNdjsonAnchor);
         headerLayout.setWidthFull();
         headerLayout.setAlignItems(Alignment.CENTER);
 
-        Details metadataDetails = new Details("Changements de Métadonnées (Summary/Description)", metadataChangesLayout);
-        metadataDetails.setOpened(true);
-        metadataDetails.setWidthFull();
-
-        Details structureDetails = new Details("Rapport de Structure (Changements techniques)", structureChangesLayout);
-        structureDetails.setOpened(true);
-        structureDetails.setWidthFull();
+        resultsLayout.add(headerLayout, duplicatesLabel, resultPanel);
 
-        resultsLayout.add(headerLayout, metadataDetails, structureDetails);
+        watchReferenceField.setWidthFull();
+        watchGeneratedField.setWidthFull();
+        watchLabel.getStyle().set("color", "var(--lumo-secondary-text-color)");
+        HorizontalLayout watchLayout = new HorizontalLayout(watchReferenceField, watchGeneratedField, watchButton);
+        watchLayout.setWidthFull();
+        watchLayout.setAlignItems(Alignment.BASELINE);
+        Details watchDetails = new Details("Surveiller des fichiers locaux", new VerticalLayout(watchLayout, watchLabel));
+        watchDetails.setWidthFull();
+        // Only offered when the server is allowed to read local contracts
+        watchDetails.setVisible(contractWatcher.hasRoots());
 
-        add(title, inputsLayout, compareButton, resultsLayout);
+        add(title, inputsLayout, compareButton, progressLayout, watchDetails, resultsLayout);
     }
 
     private void setupClickListeners() {
         compareButton.addClickListener(event -> {
-            String pmContent = pmContractArea.getValue();
-            String genInput = generatedContractArea.getValue();
+            String pmContent = pmContractInput.value();
+            String genInput = generatedContractInput.value();
 
             if (pmContent == null || pmContent.isBlank() || genInput == null || genInput.isBlank()) {
                 Notification.show("Veuillez remplir les deux champs (Contrat de référence et Contrat généré).", 3000, Notification.Position.MIDDLE)
@@ -102,28 +144,173 @@ public class MainView extends VerticalLayout {
                 return;
             }
 
-            try {
-                OpenApiDiffService.DiffResult result = diffService.compare(pmContent, genInput);
-                displayResults(result);
-            } catch (Exception e) {
-                Notification.show("Erreur lors de la comparaison : " + e.getMessage(), 5000, Notification.Position.MIDDLE)
-                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            startCompare(pmContent, genInput);
+        });
+
+        cancelButton.addClickListener(event -> {
+            if (cancelCompare()) {
+                Notification.show("Comparaison annulée.", 2000, Notification.Position.MIDDLE);
+            }
+        });
+        addDetachListener(event -> {
+            cancelCompare();
+            stopWatch();
+        });
+
+        watchButton.addClickListener(event -> {
+            if (runningWatch != null) {
+                stopWatch();
+            } else {
+                startWatch(watchReferenceField.getValue().trim(), watchGeneratedField.getValue().trim());
+            }
+        });
+    }
+
+    private void startWatch(String reference, String generated) {
+        if (reference.isEmpty() || generated.isEmpty()) {
+            Notification.show("Veuillez indiquer les deux chemins à surveiller.", 3000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
+        UI ui = UI.getCurrent();
+        try {
+            runningWatch = contractWatcher.watchWithinRoots(Path.of(reference), Path.of(generated), update -> push(ui, () -> showWatchUpdate(update)));
+        } catch (IOException | RuntimeException e) {
+            Notification.show("Surveillance impossible : " + e.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
+        watchReferenceField.setEnabled(false);
+        watchGeneratedField.setEnabled(false);
+        watchButton.setText("Arrêter la surveillance");
+        watchLabel.setText("👀 Surveillance active, comparaison à chaque enregistrement...");
+    }
+
+    private void stopWatch() {
+        if (runningWatch == null) return;
+        runningWatch.close();
+        runningWatch = null;
+        watchReferenceField.setEnabled(true);
+        watchGeneratedField.setEnabled(true);
+        watchButton.setText("Surveiller");
+        watchLabel.setText("");
+    }
+
+    private void showWatchUpdate(ContractWatcher.Update update) {
+        if (runningWatch == null) return;
+        String time = LocalTime.now().withNano(0).toString();
+        if (update.failed()) {
+            watchLabel.setText("❌ " + time + " " + update.name() + " : " + update.error());
+            return;
+        }
+        watchLabel.setText("🔄 " + time + " " + update.name() + " comparé en " + update.durationMillis() + " ms");
+        displayResults(update.result());
+    }
+
+    private void startCompare(String pmContent, String genInput) {
+        UI ui = UI.getCurrent();
+        int generation = ++compareGeneration;
+        CompareListener listener = new CompareListener() {
+            @Override
+            public void onPhase(ComparePhase phase) {
+                access(ui, generation, () -> phaseLabel.setText(phaseLabel(phase)));
+            }
+
+            @Override
+            public void onQueued(int position) {
+                access(ui, generation, () -> phaseLabel.setText("En file d'attente (position " + position + ")..."));
+            }
+        };
+
+        CompareScheduler.Ticket ticket;
+        try {
+            ticket = compareScheduler.submit(pmContent, genInput, new OpenApiDiffService.CompareOptions(true, true), listener);
+        } catch (CompareRejectedException e) {
+            Notification.show("Serveur occupé, comparaison refusée : " + e.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
+        setComparing(true);
+        phaseLabel.setText("En attente...");
+        runningCompare = ticket;
+
+        ticket.result().whenComplete((result, failure) -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            if (cause instanceof CancellationException) {
+                // The UI was already reset by cancelCompare()
+            } else if (cause != null) {
+                access(ui, generation, () -> {
+                    setComparing(false);
+                    Notification.show("Erreur lors de la comparaison : " + cause.getMessage(), 5000, Notification.Position.MIDDLE)
+                            .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                });
+            } else {
+                access(ui, generation, () -> {
+                    setComparing(false);
+                    displayResults(result);
+                });
             }
         });
     }
 
+    private boolean cancelCompare() {
+        CompareScheduler.Ticket running = runningCompare;
+        if (running == null || running.result().isDone()) return false;
+        compareGeneration++;
+        running.cancel();
+        setComparing(false);
+        return true;
+    }
+
+    private void setComparing(boolean comparing) {
+        compareButton.setEnabled(!comparing);
+        progressLayout.setVisible(comparing);
+        if (!comparing) runningCompare = null;
+    }
+
+    private void access(UI ui, int generation, Command command) {
+        try {
+            ui.access(() -> {
+                if (generation == compareGeneration) command.execute();
+            });
+        } catch (UIDetachedException e) {
+            // The user left the page; nothing to update
+        }
+    }
+
+    private void push(UI ui, Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            // The user left the page; the detach listener stops the watch
+        }
+    }
+
+    private String phaseLabel(ComparePhase phase) {
+        return switch (phase) {
+            case FETCH -> "Téléchargement du contrat généré...";
+            case SCAN -> "Vérification des contrats...";
+            case PARSE -> "Analyse des contrats...";
+            case NORMALIZE -> "Normalisation des descriptions...";
+            case FILTER -> "Filtrage des opérations...";
+            case DIFF -> "Comparaison...";
+            case EXTRACT -> "Extraction des changements...";
+        };
+    }
+
     private void displayResults(OpenApiDiffService.DiffResult result) {
         resultsLayout.setVisible(true);
-        metadataChangesLayout.removeAll();
-        structureChangesLayout.removeAll();
         
         if (result.isDifferent() || !result.missingOperationIds().isEmpty()) {
             exportAnchor.setVisible(true);
-            StreamResource resource = new StreamResource("openapi-diff.csv", 
-                () -> diffService.exportToCsv(result));
-            exportAnchor.setHref(resource);
+            exportAnchor.setHref(new StreamResource("openapi-diff.csv",
+                (out, session) -> diffService.export(result, ReportFormat.CSV, out)));
+            exportNdjsonAnchor.setVisible(true);
+            exportNdjsonAnchor.setHref(new StreamResource("openapi-diff.ndjson",
+                (out, session) -> diffService.export(result, ReportFormat.NDJSON, out)));
         } else {
             exportAnchor.setVisible(false);
+            exportNdjsonAnchor.setVisible(false);
         }
 
         if (!result.missingOperationIds().isEmpty()) {
@@ -138,92 +325,15 @@ public class MainView extends VerticalLayout {
             statusLabel.getStyle().set("color", "var(--lumo-success-color)");
         }
 
-        // Structure Changes
-        if (result.structureChanges().isEmpty()) {
-            structureChangesLayout.add(new Span("Aucun changement de structure détecté."));
+        if (!result.duplicateOperationIds().isEmpty()) {
+            duplicatesLabel.setText("⚠️ " + result.duplicateOperationIds().size() + " operationId(s) dupliqué(s) dans le contrat généré (première déclaration utilisée) : "
+                    + String.join(", ", result.duplicateOperationIds()));
+            duplicatesLabel.setVisible(true);
         } else {
-            result.structureChanges().forEach(change -> {
-                HorizontalLayout row = new HorizontalLayout();
-                row.setWidthFull();
-                row.setAlignItems(Alignment.CENTER);
-                row.getStyle().set("border-bottom", "1px solid var(--lumo-contrast-10pct)");
-                row.setPadding(true);
-
-                String icon = switch (change.changeType()) {
-                    case "NEW" -> "➕";
-                    case "REMOVED" -> "❌";
-                    default -> change.isBreaking() ? "⚠️" : "🔄";
-                };
-
-                Span method = new Span(change.method());
-                method.getStyle().set("font-weight", "bold");
-                method.getStyle().set("min-width", "60px");
-                
-                Span path = new Span(change.path());
-                path.getStyle().set("flex-grow", "1");
-
-                VerticalLayout details = new VerticalLayout();
-                details.setSpacing(false);
-                details.setPadding(false);
-                change.details().forEach(d -> {
-                    Span s = new Span("• " + d);
-                    s.getStyle().set("font-size", "0.9em");
-                    if (change.isBreaking()) s.getStyle().set("color", "var(--lumo-error-color)");
-                    details.add(s);
-                });
-
-                row.add(new Span(icon), method, path, details);
-                structureChangesLayout.add(row);
-            });
+            duplicatesLabel.setVisible(false);
         }
-        
-        // Metadata Changes
-        result.metadataChanges().forEach(change -> {
-            VerticalLayout changeCard = new VerticalLayout();
-            changeCard.setSpacing(false);
-            changeCard.setPadding(true);
-            changeCard.getStyle().set("border", "1px solid var(--lumo-contrast-10pct)");
-            changeCard.getStyle().set("border-radius", "var(--lumo-border-radius-m)");
-            changeCard.setWidthFull();
-
-            Span header = new Span(change.method() + " " + change.path() + " (" + change.field() + ")");
-            header.getStyle().set("font-weight", "bold");
-            header.getStyle().set("color", "var(--lumo-primary-color)");
-
-            HorizontalLayout comparison = new HorizontalLayout();
-            comparison.setWidthFull();
-            comparison.setSpacing(true);
-
-            VerticalLayout left = new VerticalLayout(new Span("📜 Contract Design First"));
-            Pre preLeft = new Pre(change.designFirstValue());
-            preLeft.getStyle().set("white-space", "pre-wrap");
-            preLeft.getStyle().set("word-break", "break-word");
-            preLeft.setWidthFull();
-            left.add(preLeft);
-            left.setPadding(false);
-            left.setSpacing(false);
-            left.getStyle().set("background-color", "var(--lumo-contrast-5pct)");
-            left.getStyle().set("padding", "10px");
-            left.getStyle().set("border-radius", "4px");
-            left.setWidth("50%");
-
-            VerticalLayout right = new VerticalLayout(new Span("⚙️ Contrat généré"));
-            Pre preRight = new Pre(change.generatedValue());
-            preRight.getStyle().set("white-space", "pre-wrap");
-            preRight.getStyle().set("word-break", "break-word");
-            preRight.setWidthFull();
-            right.add(preRight);
-            right.setPadding(false);
-            right.setSpacing(false);
-            right.getStyle().set("background-color", "var(--lumo-contrast-5pct)");
-            right.getStyle().set("padding", "10px");
-            right.getStyle().set("border-radius", "4px");
-            right.setWidth("50%");
-
-            comparison.add(left, right);
-            changeCard.add(header, comparison);
-            metadataChangesLayout.add(changeCard);
-        });
+
+        resultPanel.setResult(result);
         
         // Scroll to results
         resultsLayout.getElement().executeJs("this.scrollIntoView({behavior: 'smooth'})");
@@ -0,0 +1,77 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a {@link DiffResult} as Markdown in the layout of {@code rapport.md}: one section per
+ * operation, structural changes as lists and description changes as a table.
+ */
+final class MarkdownReportWriter {
+
+    private MarkdownReportWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        if (!result.isDifferent() && result.missingOperationIds().isEmpty()) {
+            out.write("#### No differences\n---\n\nThe generated contract matches the reference.\n");
+            return;
+        }
+        out.write("#### What's Changed\n---\n");
+        if (!result.missingOperationIds().isEmpty()) {
+            out.write("\n**Missing operations:** ");
+            writeCodeList(out, result.missingOperationIds());
+            out.write('\n');
+        }
+        if (!result.duplicateOperationIds().isEmpty()) {
+            out.write("\n**Duplicate operationIds in generated contract:** ");
+            writeCodeList(out, result.duplicateOperationIds());
+            out.write('\n');
+        }
+
+        for (OperationFindings operation : OperationFindings.of(result)) {
+            out.write("\n##### `" + operation.method() + "` " + operation.path() + "\n");
+            for (StructureChange change : operation.structureChanges()) {
+                out.write("\n###### " + title(change.changeType()) + (change.isBreaking() ? " (breaking)" : "") + ":\n\n");
+                for (String detail : change.details()) {
+                    // Nested schema details are indented by two spaces per level
+                    int indent = 0;
+                    while (indent < detail.length() && detail.charAt(indent) == ' ') indent++;
+                    out.write("  ".repeat(indent / 2) + "- " + detail.substring(indent) + "\n");
+                }
+            }
+            if (!operation.metadataChanges().isEmpty()) {
+                out.write("\n###### Descriptions:\n\n| Element | Reference | Generated |\n|---|---|---|\n");
+                for (MetadataChange change : operation.metadataChanges()) {
+                    out.write("| " + cell(change.field()) + " | " + cell(change.designFirstValue()) + " | " + cell(change.generatedValue()) + " |\n");
+                }
+            }
+        }
+    }
+
+    private static String title(String changeType) {
+        return switch (changeType) {
+            case "NEW" -> "Added";
+            case "REMOVED" -> "Deleted";
+            default -> "Changed";
+        };
+    }
+
+    private static void writeCodeList(Writer out, Iterable<String> values) throws IOException {
+        boolean first = true;
+        for (String value : values) {
+            if (!first) out.write(", ");
+            out.write("`" + value + "`");
+            first = false;
+        }
+    }
+
+    private static String cell(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("|", "\\|").replace("\r", "").replace("\n", "<br>");
+    }
+}
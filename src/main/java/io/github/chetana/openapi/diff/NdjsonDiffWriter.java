@@ -0,0 +1,63 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streams a {@link DiffResult} as newline-delimited JSON: one object per missing operation,
+ * structure change and metadata change, each tagged with its {@code category}.
+ */
+final class NdjsonDiffWriter {
+
+    private NdjsonDiffWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        try (JsonGenerator json = DiffResultJsonWriter.createGenerator(out)) {
+            json.setRootValueSeparator(new SerializedString("\n"));
+
+            for (String missingOp : result.missingOperationIds()) {
+                json.writeStartObject();
+                json.writeStringField("category", "missingOperation");
+                json.writeStringField("operation", missingOp);
+                json.writeBooleanField("isBreaking", true);
+                json.writeEndObject();
+            }
+
+            for (StructureChange change : result.structureChanges()) {
+                json.writeStartObject();
+                json.writeStringField("category", "structure");
+                json.writeStringField("method", change.method());
+                json.writeStringField("path", change.path());
+                json.writeStringField("changeType", change.changeType());
+                json.writeBooleanField("isBreaking", change.isBreaking());
+                json.writeArrayFieldStart("details");
+                for (String detail : change.details()) {
+                    json.writeString(detail);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+
+            for (MetadataChange change : result.metadataChanges()) {
+                json.writeStartObject();
+                json.writeStringField("category", "metadata");
+                json.writeStringField("method", change.method());
+                json.writeStringField("path", change.path());
+                json.writeStringField("field", change.field());
+                json.writeStringField("designFirstValue", change.designFirstValue());
+                json.writeStringField("generatedValue", change.generatedValue());
+                json.writeEndObject();
+            }
+            if (!result.missingOperationIds().isEmpty() || !result.structureChanges().isEmpty() || !result.metadataChanges().isEmpty()) {
+                json.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -3,9 +3,17 @@ package io.github.chetana.openapi.diff;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 public class OpenApiDiffApplication {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "batch".equals(args[0])) {
+            System.exit(BatchCli.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && "watch".equals(args[0])) {
+            System.exit(WatchCli.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
         SpringApplication.run(OpenApiDiffApplication.class, args);
     }
 }
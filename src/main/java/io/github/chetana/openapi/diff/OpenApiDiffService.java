@@ -1,135 +1,521 @@
 package io.github.chetana.openapi.diff;
 
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
-import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import org.openapitools.openapidiff.core.OpenApiCompare;
 import org.openapitools.openapidiff.core.model.*;
-import org.openapitools.openapidiff.core.output.ConsoleRender;
-import org.openapitools.openapidiff.core.output.Render;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OpenApiDiffService {
 
+    private static final Logger log = LoggerFactory.getLogger(OpenApiDiffService.class);
+
+    private final ReferenceContractCache referenceCache;
+    private final RemoteContractFetcher remoteFetcher;
+    private final CompareMetrics metrics;
+    private final IncrementalDiffCache incrementalCache;
+    private final ContractIngestor ingestor;
+    private final DiffShardPool shardPool;
+    private final DiffHistoryStore history;
+
+    public OpenApiDiffService() {
+        this(new ReferenceContractCache(), new RemoteContractFetcher(), new CompareMetrics(), new IncrementalDiffCache(), new ContractIngestor(),
+                new DiffShardPool(), new DiffHistoryStore());
+    }
+
+    @Autowired
+    public OpenApiDiffService(ReferenceContractCache referenceCache, RemoteContractFetcher remoteFetcher, CompareMetrics metrics,
+                              IncrementalDiffCache incrementalCache, ContractIngestor ingestor, DiffShardPool shardPool, DiffHistoryStore history) {
+        this.referenceCache = referenceCache;
+        this.remoteFetcher = remoteFetcher;
+        this.metrics = metrics;
+        this.incrementalCache = incrementalCache;
+        this.ingestor = ingestor;
+        this.shardPool = shardPool;
+        this.history = history;
+        metrics.bindReferenceCache(referenceCache);
+    }
+
     public record MetadataChange(String path, String method, String field, String designFirstValue, String generatedValue) {}
+    /** {@code details} is a {@link ChangeDetails} for changes built here: its lines are formatted as they are read. */
     public record StructureChange(String method, String path, String changeType, List<String> details, boolean isBreaking) {}
-    public record DiffResult(String consoleReport, List<MetadataChange> metadataChanges, List<StructureChange> structureChanges, boolean isDifferent, List<String> missingOperationIds) {}
-
-    public InputStream exportToCsv(DiffResult result) {
-        StringBuilder csv = new StringBuilder();
-        // Header
-        csv.append("Category,Path,Method,Element,Contract Design First (Reference),Generated Contract,Is Breaking\n");
-
-        // Missing Operations (those that couldn't be found at all)
-        for (String missingOp : result.missingOperationIds()) {
-            csv.append("Missing Operation,,,")
-                    .append(escapeCsv(missingOp)).append(",")
-                    .append("PRESENT,")
-                    .append("ABSENT,")
-                    .append("TRUE")
-                    .append("\n");
-        }
-
-        // Structure Changes
-        for (StructureChange change : result.structureChanges()) {
-            String designVal = "";
-            String genVal = "";
-            
-            if ("REMOVED".equals(change.changeType())) {
-                designVal = "PRESENT";
-                genVal = "ABSENT";
-            } else if ("NEW".equals(change.changeType())) {
-                designVal = "ABSENT";
-                genVal = "PRESENT";
-            } else {
-                designVal = "MATCH (Structural change)";
-                genVal = String.join("; ", change.details());
-            }
+    /**
+     * {@code isDifferent} is whether the diff engine found any difference, metadata included. A
+     * fail-fast compare ({@link CompareOptions#failFast()}) stops before it could tell: there it
+     * is whether a breaking change was found, and so always equals {@link #isBreaking()}.
+     */
+    public record DiffResult(List<MetadataChange> metadataChanges, List<StructureChange> structureChanges, boolean isDifferent, List<String> missingOperationIds, List<String> duplicateOperationIds) {
+        /** Whether clients of the reference would break: an operation is missing or changed incompatibly. */
+        public boolean isBreaking() {
+            return !missingOperationIds.isEmpty() || structureChanges.stream().anyMatch(StructureChange::isBreaking);
+        }
+    }
+    /**
+     * {@code incremental} reuses the per-operation results of the previous compare of the same
+     * reference and generated source for operations whose fingerprints did not change.
+     * {@code sharded} lets a large pair be diffed as operation shards on the {@link DiffShardPool};
+     * the result is the same as an unsharded compare. {@code byComponent} reports each changed
+     * component schema once, as a {@link ComponentChanges} entry listing the operations using it,
+     * instead of under every operation; such a compare is neither incremental nor sharded.
+     * {@code failFast}, when positive, turns the compare into a gate: it stops at that many
+     * breaking findings and the result lists only those, with no metadata changes. Its
+     * {@link DiffResult#isBreaking()} is that of a full compare, and {@code isDifferent()} is true
+     * only when something breaking was found.
+     */
+    public record CompareOptions(boolean incremental, boolean sharded, boolean byComponent, int failFast) {
+        public CompareOptions(boolean incremental, boolean sharded) {
+            this(incremental, sharded, false);
+        }
 
-            csv.append("Structure,")
-                    .append(escapeCsv(change.path())).append(",")
-                    .append(escapeCsv(change.method())).append(",")
-                    .append(escapeCsv(change.changeType())).append(",")
-                    .append(escapeCsv(designVal)).append(",")
-                    .append(escapeCsv(genVal)).append(",")
-                    .append(change.isBreaking())
-                    .append("\n");
+        public CompareOptions(boolean incremental, boolean sharded, boolean byComponent) {
+            this(incremental, sharded, byComponent, 0);
         }
 
-        // Metadata Changes
-        for (MetadataChange change : result.metadataChanges()) {
-            csv.append("Metadata,")
-                    .append(escapeCsv(change.path())).append(",")
-                    .append(escapeCsv(change.method())).append(",")
-                    .append(escapeCsv(change.field())).append(",")
-                    .append(escapeCsv(change.designFirstValue())).append(",")
-                    .append(escapeCsv(change.generatedValue())).append(",")
-                    .append("FALSE")
-                    .append("\n");
+        public static CompareOptions defaults() {
+            return new CompareOptions(false, false);
         }
+    }
+
+    // What the diff engine found for a set of operations, before it is laid out in document order
+    private record OperationDiff(Map<OperationKey, IncrementalDiffCache.OperationResult> results, List<StructureChange> newEndpoints,
+                                 boolean different, boolean extensionsDifferent) {}
 
-        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    /** Streams {@code result} to {@code out} in UTF-8, rendered in {@code format}. */
+    public void export(DiffResult result, ReportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        render(result, format, writer);
+        writer.flush();
     }
 
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    public void render(DiffResult result, ReportFormat format, Writer out) throws IOException {
+        long start = System.nanoTime();
+        format.renderer().render(result, out);
+        metrics.recordExport(format.id(), start);
     }
 
     public DiffResult compare(String pmSpecContent, String generatedSpecInput) throws Exception {
-        ParseOptions options = new ParseOptions();
-        options.setResolve(true);
+        return compare(pmSpecContent, generatedSpecInput, CompareOptions.defaults());
+    }
+
+    public DiffResult compare(String pmSpecContent, String generatedSpecInput, CompareOptions compareOptions) throws Exception {
+        return compare(pmSpecContent, generatedSpecInput, compareOptions, CompareListener.NONE);
+    }
+
+    /**
+     * Runs a compare, reporting each phase to {@code listener}. The calling thread's interrupt flag
+     * is checked between phases: an interrupted compare stops with a {@link CancellationException}.
+     */
+    public DiffResult compare(String pmSpecContent, String generatedSpecInput, CompareOptions compareOptions, CompareListener listener) throws Exception {
+        CompareMetrics.Trace trace = metrics.start();
+        try {
+            DiffResult result = compare(pmSpecContent, generatedSpecInput, compareOptions, listener, trace);
+            trace.success(result);
+            return result;
+        } catch (Exception | Error e) {
+            trace.failure(e);
+            throw e;
+        }
+    }
 
-        OpenAPI pmOpenAPI = new OpenAPIV3Parser().readContents(pmSpecContent, null, options).getOpenAPI();
-        
-        OpenAPI genOpenAPI;
+    private DiffResult compare(String pmSpecContent, String generatedSpecInput, CompareOptions compareOptions, CompareListener listener, CompareMetrics.Trace trace) throws Exception {
+        String genContent = generatedSpecInput;
+        String genLocation = null;
         if (generatedSpecInput.trim().startsWith("http")) {
-            genOpenAPI = new OpenAPIV3Parser().read(generatedSpecInput.trim(), null, options);
-        } else {
-            genOpenAPI = new OpenAPIV3Parser().readContents(generatedSpecInput, null, options).getOpenAPI();
+            enterPhase(listener, trace, ComparePhase.FETCH);
+            genLocation = generatedSpecInput.trim();
+            try {
+                genContent = remoteFetcher.fetch(genLocation);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not fetch the generated contract from " + genLocation + ": " + e.getMessage(), e);
+            }
+        }
+
+        // A pair of contents compared before is served from the history as is
+        String pmHash = ReferenceContractCache.hash(pmSpecContent);
+        // The history keeps complete per-operation results only
+        boolean recorded = history.isEnabled() && !compareOptions.byComponent() && compareOptions.failFast() <= 0;
+        String genHash = recorded ? ReferenceContractCache.hash(genContent) : null;
+        DiffResult stored = genHash != null ? history.find(pmHash, genHash) : null;
+        if (stored != null) {
+            log.debug("Compare served from the diff history ({} / {})", pmHash, genHash);
+            return stored;
         }
 
+        enterPhase(listener, trace, ComparePhase.SCAN);
+        // Malformed, oversized or non-OpenAPI 3 inputs fail here, before any tree is built
+        ingestor.checkSize(pmSpecContent, "reference");
+        ingestor.checkSize(genContent, "generated");
+        ContractIngestor.ContractStats genStats = ContractIngestor.scan(genContent, "generated");
+
+        enterPhase(listener, trace, ComparePhase.PARSE);
+        // The reference is parsed, normalized and rewritten as the engine would once per distinct
+        // content; the cached model is shared by every compare and must not be changed.
+        OpenAPI pmOpenAPI = referenceCache.get(pmSpecContent, content -> {
+            ContractIngestor.scan(content, "reference");
+            OpenAPI parsed = parseContents(content);
+            if (parsed != null) {
+                normalizeAllDescriptions(parsed);
+                EngineRewrites.apply(parsed);
+            }
+            return parsed;
+        });
+        OpenAPI genOpenAPI = parseContents(genContent, genLocation);
+
         if (pmOpenAPI == null || genOpenAPI == null) {
             throw new IllegalArgumentException("Could not parse one of the OpenAPI specifications. Ensure the content is valid JSON/YAML or the URL is accessible.");
         }
+        trace.specSizes(pmSpecContent.length(), genContent.length());
 
-        normalizeAllDescriptions(pmOpenAPI);
-        normalizeAllDescriptions(genOpenAPI);
+        // Descriptions never make a change breaking: a gate does not need them normalized
+        if (compareOptions.failFast() <= 0) {
+            enterPhase(listener, trace, ComparePhase.NORMALIZE);
+            normalizeAllDescriptions(genOpenAPI);
+        }
 
+        enterPhase(listener, trace, ComparePhase.FILTER);
         List<String> missingOperationIds = new ArrayList<>();
-        OpenAPI filteredGenOpenAPI = filterGeneratedOpenApi(pmOpenAPI, genOpenAPI, missingOperationIds);
+        OperationIndex genIndex = OperationIndex.of(genOpenAPI, genStats.operations());
+        OpenAPI filteredGenOpenAPI = filterGeneratedOpenApi(pmOpenAPI, genOpenAPI, genIndex, missingOperationIds);
+        trace.operations(operationCount(pmOpenAPI), genIndex.operationCount());
 
-        String pmJson = Json.pretty(pmOpenAPI);
-        String genJson = Json.pretty(filteredGenOpenAPI);
+        List<String> duplicateOperationIds = genIndex.duplicateOperationIds();
+        if (!duplicateOperationIds.isEmpty()) {
+            log.warn("{} duplicate operationId(s) in generated contract, first declaration used: {}", duplicateOperationIds.size(), duplicateOperationIds);
+        }
 
-        ChangedOpenApi diff = OpenApiCompare.fromContents(pmJson, genJson);
+        DiffResult result = diff(pmHash, genLocation, pmOpenAPI, filteredGenOpenAPI, compareOptions, missingOperationIds, duplicateOperationIds, listener, trace);
+        if (genHash != null) history.record(serviceName(pmOpenAPI), pmHash, genHash, genLocation, result);
+        return result;
+    }
 
-        String consoleReport = renderToString(new ConsoleRender(), diff);
+    private DiffResult diff(String pmHash, String genLocation, OpenAPI pmOpenAPI, OpenAPI filteredGenOpenAPI, CompareOptions compareOptions,
+                            List<String> missingOperationIds, List<String> duplicateOperationIds, CompareListener listener, CompareMetrics.Trace trace) {
+        if (compareOptions.failFast() > 0) {
+            return compareUntilBreaking(pmOpenAPI, filteredGenOpenAPI, compareOptions.failFast(), missingOperationIds, duplicateOperationIds, listener, trace);
+        }
+        if (compareOptions.byComponent()) {
+            return compareByComponent(pmOpenAPI, filteredGenOpenAPI, missingOperationIds, duplicateOperationIds, listener, trace);
+        }
+        if (compareOptions.incremental()) {
+            return compareIncrementally(pmHash, genLocation, pmOpenAPI, filteredGenOpenAPI, compareOptions, missingOperationIds, duplicateOperationIds, listener, trace);
+        }
+
+        int shardCount = compareOptions.sharded() ? shardPool.shardCount(operationCount(pmOpenAPI)) : 1;
+        if (shardCount > 1) {
+            enterPhase(listener, trace, ComparePhase.DIFF);
+            OperationDiff diff = diffInShards(pmOpenAPI, filteredGenOpenAPI, operationsInDocumentOrder(pmOpenAPI), shardCount, trace);
+            enterPhase(listener, trace, ComparePhase.EXTRACT);
+            return assemble(pmOpenAPI, diff, missingOperationIds, duplicateOperationIds);
+        }
+
+        enterPhase(listener, trace, ComparePhase.DIFF);
+        // Both models are already resolved and normalized: hand them to the diff engine as-is
+        // instead of serializing them back to JSON for OpenApiCompare to parse a second time.
+        ChangedOpenApi diff = OpenApiCompare.fromSpecifications(pmOpenAPI, filteredGenOpenAPI);
+
+        enterPhase(listener, trace, ComparePhase.EXTRACT);
         List<MetadataChange> metadataChanges = extractMetadataChanges(diff);
         List<StructureChange> structureChanges = extractStructureChanges(diff);
 
-        return new DiffResult(consoleReport, metadataChanges, structureChanges, diff.isDifferent(), missingOperationIds);
+        return new DiffResult(metadataChanges, structureChanges, diff.isDifferent(), missingOperationIds, duplicateOperationIds);
+    }
+
+    private DiffResult compareByComponent(OpenAPI pmOpenAPI, OpenAPI filteredGenOpenAPI, List<String> missingOperationIds, List<String> duplicateOperationIds,
+                                          CompareListener listener, CompareMetrics.Trace trace) {
+        enterPhase(listener, trace, ComparePhase.DIFF);
+        ChangedOpenApi diff = OpenApiCompare.fromSpecifications(pmOpenAPI, filteredGenOpenAPI);
+
+        enterPhase(listener, trace, ComparePhase.EXTRACT);
+        StringDictionary dictionary = new StringDictionary();
+        ComponentChanges components = new ComponentChanges(diff.getOldSpecOpenApi(), OpenApiDiffService::expandSchemaDetails,
+                OpenApiDiffService::expandSchemaDescriptions, dictionary);
+        List<MetadataChange> metadataChanges = extractMetadataChanges(diff, new SchemaTraversal<>(components.descriptions()), dictionary);
+        List<StructureChange> structureChanges = extractStructureChanges(diff, new SchemaTraversal<>(components.details()), dictionary);
+        components.appendTo(structureChanges, metadataChanges);
+
+        return new DiffResult(metadataChanges, structureChanges, diff.isDifferent(), missingOperationIds, duplicateOperationIds);
+    }
+
+    /**
+     * Looks for breaking changes cheapest first and stops at {@code maxFindings}: reference
+     * operations missing from the generated contract, then operations whose parameters, request
+     * body or response codes moved, then the other operations whose definitions differ.
+     * Operations are diffed in batches that double in size, so a contract breaking early is
+     * answered after a handful of operations and a compatible one costs about a full diff.
+     * Identical operations are not diffed.
+     */
+    private DiffResult compareUntilBreaking(OpenAPI pmOpenAPI, OpenAPI filteredGenOpenAPI, int maxFindings,
+                                            List<String> missingOperationIds, List<String> duplicateOperationIds,
+                                            CompareListener listener, CompareMetrics.Trace trace) {
+        enterPhase(listener, trace, ComparePhase.DIFF);
+        List<StructureChange> findings = new ArrayList<>();
+        List<OperationKey> generatedOperations = operationsInDocumentOrder(filteredGenOpenAPI);
+        Set<OperationKey> matched = new HashSet<>(generatedOperations);
+        for (OperationKey key : operationsInDocumentOrder(pmOpenAPI)) {
+            if (findings.size() == maxFindings) break;
+            if (!matched.contains(key)) findings.add(missingEndpoint(key.method().toString(), key.path()));
+        }
+
+        if (findings.size() < maxFindings) {
+            // Equal fingerprints diff identically, unless what every operation depends on differs.
+            // The cached reference has its composed schemas merged: merge the generated ones too
+            boolean sameGlobals = sameGlobals(pmOpenAPI, filteredGenOpenAPI);
+            if (sameGlobals) EngineRewrites.mergeComposedSchemas(filteredGenOpenAPI);
+            Map<OperationKey, String> pmFingerprints = sameGlobals ? OperationFingerprints.of(pmOpenAPI) : Map.of();
+            Map<OperationKey, String> genFingerprints = sameGlobals ? OperationFingerprints.of(filteredGenOpenAPI) : Map.of();
+            List<OperationKey> candidates = new ArrayList<>();
+            List<OperationKey> schemaCandidates = new ArrayList<>();
+            for (OperationKey key : generatedOperations) {
+                if (sameGlobals && genFingerprints.get(key).equals(pmFingerprints.get(key))) continue;
+                (signatureChanged(operation(pmOpenAPI, key), operation(filteredGenOpenAPI, key)) ? candidates : schemaCandidates).add(key);
+            }
+            candidates.addAll(schemaCandidates);
+
+            SchemaTraversal<ChangedSchema, ChangeDetails.Node> schemaDetails = new SchemaTraversal<>(OpenApiDiffService::expandSchemaDetails);
+            StringDictionary dictionary = new StringDictionary();
+            for (int from = 0, batch = 1; from < candidates.size() && findings.size() < maxFindings; from += batch, batch *= 2) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Comparison cancelled during " + ComparePhase.DIFF);
+                }
+                Set<OperationKey> slice = new HashSet<>(candidates.subList(from, Math.min(candidates.size(), from + batch)));
+                ChangedOpenApi diff = OpenApiCompare.fromSpecifications(SpecSlicer.slice(pmOpenAPI, slice), SpecSlicer.slice(filteredGenOpenAPI, slice));
+                for (ChangedOperation op : inDocumentOrder(pmOpenAPI, diff.getChangedOperations(), ChangedOperation::getPathUrl, ChangedOperation::getHttpMethod)) {
+                    if (findings.size() == maxFindings) break;
+                    if (!op.isCompatible()) findings.add(structureChangeOf(op, schemaDetails, dictionary));
+                }
+            }
+            log.debug("Fail-fast compare: {} finding(s), {} of {} operation(s) to diff", findings.size(), candidates.size(), generatedOperations.size());
+        }
+        return new DiffResult(List.of(), findings, !findings.isEmpty(), missingOperationIds, duplicateOperationIds);
+    }
+
+    private static boolean sameGlobals(OpenAPI reference, OpenAPI generated) {
+        return Objects.equals(reference.getOpenapi(), generated.getOpenapi())
+                && Objects.equals(reference.getSecurity(), generated.getSecurity())
+                && Objects.equals(securitySchemes(reference), securitySchemes(generated))
+                && Objects.equals(reference.getExtensions(), generated.getExtensions());
+    }
+
+    private static Object securitySchemes(OpenAPI spec) {
+        return spec.getComponents() != null ? spec.getComponents().getSecuritySchemes() : null;
+    }
+
+    private static Operation operation(OpenAPI spec, OperationKey key) {
+        return spec.getPaths().get(key.path()).readOperationsMap().get(key.method());
+    }
+
+    // What most breaking changes touch, compared without looking at schemas
+    private static boolean signatureChanged(Operation reference, Operation generated) {
+        return !parameterSignature(reference).equals(parameterSignature(generated))
+                || !responseCodes(reference).equals(responseCodes(generated))
+                || (reference.getRequestBody() == null) != (generated.getRequestBody() == null)
+                || reference.getRequestBody() != null
+                && !Objects.equals(reference.getRequestBody().getRequired(), generated.getRequestBody().getRequired());
+    }
+
+    private static Map<String, Boolean> parameterSignature(Operation operation) {
+        Map<String, Boolean> signature = new HashMap<>();
+        if (operation.getParameters() == null) return signature;
+        for (Parameter parameter : operation.getParameters()) {
+            String name = parameter.get$ref() != null ? parameter.get$ref() : parameter.getIn() + " " + parameter.getName();
+            signature.put(name, Boolean.TRUE.equals(parameter.getRequired()));
+        }
+        return signature;
+    }
+
+    private static Set<String> responseCodes(Operation operation) {
+        return operation.getResponses() != null ? new HashSet<>(operation.getResponses().keySet()) : Set.of();
+    }
+
+    private DiffResult compareIncrementally(String pmHash, String genLocation, OpenAPI pmOpenAPI, OpenAPI filteredGenOpenAPI,
+                                            CompareOptions compareOptions, List<String> missingOperationIds, List<String> duplicateOperationIds,
+                                            CompareListener listener, CompareMetrics.Trace trace) {
+        enterPhase(listener, trace, ComparePhase.DIFF);
+        String snapshotKey = pmHash + " " + (genLocation != null ? genLocation : "inline");
+        IncrementalDiffCache.Snapshot previous = incrementalCache.get(snapshotKey);
+        String globalFingerprint = OperationFingerprints.global(pmOpenAPI, filteredGenOpenAPI);
+        boolean reusable = previous != null && previous.globalFingerprint().equals(globalFingerprint);
+        Map<OperationKey, String> genFingerprints = OperationFingerprints.of(filteredGenOpenAPI);
+
+        Map<OperationKey, IncrementalDiffCache.OperationResult> results = new HashMap<>();
+        Set<OperationKey> stale = new HashSet<>();
+        genFingerprints.forEach((key, fingerprint) -> {
+            IncrementalDiffCache.OperationResult cached = reusable ? previous.results().get(key) : null;
+            if (cached != null && fingerprint.equals(previous.generatedFingerprints().get(key))) {
+                results.put(key, cached);
+            } else {
+                stale.add(key);
+            }
+        });
+
+        boolean extensionsDifferent = reusable && previous.extensionsDifferent();
+        if (!stale.isEmpty() || !reusable) {
+            int shardCount = compareOptions.sharded() ? shardPool.shardCount(stale.size()) : 1;
+            OperationDiff diff = shardCount > 1
+                    ? diffInShards(pmOpenAPI, filteredGenOpenAPI, operationsInDocumentOrder(pmOpenAPI).stream().filter(stale::contains).toList(), shardCount, trace)
+                    : diffOperations(SpecSlicer.slice(pmOpenAPI, stale), SpecSlicer.slice(filteredGenOpenAPI, stale));
+            results.putAll(diff.results());
+            stale.forEach(key -> results.putIfAbsent(key, IncrementalDiffCache.OperationResult.UNCHANGED));
+            extensionsDifferent = diff.extensionsDifferent();
+        }
+        incrementalCache.put(snapshotKey, new IncrementalDiffCache.Snapshot(globalFingerprint, genFingerprints, results, extensionsDifferent));
+        log.debug("Incremental compare: {} operation(s) reused, {} diffed", genFingerprints.size() - stale.size(), stale.size());
+
+        enterPhase(listener, trace, ComparePhase.EXTRACT);
+        return assemble(pmOpenAPI, new OperationDiff(results, List.of(), extensionsDifferent, extensionsDifferent),
+                missingOperationIds, duplicateOperationIds);
+    }
+
+    /**
+     * Diffs {@code operations} as {@code shardCount} contiguous runs, each an isolated slice of
+     * both specs diffed on the shard pool. Operations of a run are neighbours in the reference,
+     * so they tend to share the components their slice copies. What the shards allocate is
+     * counted in the compare's {@code trace}.
+     */
+    private OperationDiff diffInShards(OpenAPI pmOpenAPI, OpenAPI genOpenAPI, List<OperationKey> operations, int shardCount, CompareMetrics.Trace trace) {
+        List<Callable<OperationDiff>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            Set<OperationKey> shard = new HashSet<>(operations.subList(i * operations.size() / shardCount, (i + 1) * operations.size() / shardCount));
+            shards.add(trace.measured(() -> diffOperations(SpecSlicer.isolate(pmOpenAPI, shard), SpecSlicer.isolate(genOpenAPI, shard))));
+        }
+        List<OperationDiff> diffs;
+        try {
+            diffs = shardPool.invokeAll(shards);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Comparison cancelled during " + ComparePhase.DIFF);
+        }
+
+        Map<OperationKey, IncrementalDiffCache.OperationResult> results = new HashMap<>();
+        List<StructureChange> newEndpoints = new ArrayList<>();
+        boolean different = false;
+        boolean extensionsDifferent = false;
+        for (OperationDiff diff : diffs) {
+            results.putAll(diff.results());
+            newEndpoints.addAll(diff.newEndpoints());
+            different |= diff.different();
+            extensionsDifferent |= diff.extensionsDifferent();
+        }
+        log.debug("Sharded compare: {} operation(s) in {} shard(s)", operations.size(), shardCount);
+        return new OperationDiff(results, newEndpoints, different, extensionsDifferent);
+    }
+
+    private static OperationDiff diffOperations(OpenAPI pmSlice, OpenAPI genSlice) {
+        ChangedOpenApi diff = OpenApiCompare.fromSpecifications(pmSlice, genSlice);
+        SchemaTraversal<ChangedSchema, ChangeDetails.Node> schemaDetails = new SchemaTraversal<>(OpenApiDiffService::expandSchemaDetails);
+        SchemaTraversal<ChangedSchema, ChangedMetadata> schemaDescriptions = new SchemaTraversal<>(OpenApiDiffService::expandSchemaDescriptions);
+        StringDictionary dictionary = new StringDictionary();
+        Map<OperationKey, IncrementalDiffCache.OperationResult> results = new HashMap<>();
+        for (ChangedOperation op : diff.getChangedOperations()) {
+            List<MetadataChange> metadata = new ArrayList<>();
+            collectMetadataChanges(op, schemaDescriptions, dictionary, metadata);
+            results.put(new OperationKey(op.getPathUrl(), op.getHttpMethod()),
+                    new IncrementalDiffCache.OperationResult(structureChangeOf(op, schemaDetails, dictionary), List.copyOf(metadata), op.isDifferent()));
+        }
+        // Operations of the slice the engine found identical
+        genSlice.getPaths().forEach((url, pathItem) -> pathItem.readOperationsMap().keySet().forEach(method ->
+                results.putIfAbsent(new OperationKey(url, method), IncrementalDiffCache.OperationResult.UNCHANGED)));
+        List<StructureChange> newEndpoints = new ArrayList<>();
+        diff.getNewEndpoints().forEach(endpoint -> newEndpoints.add(newEndpoint(endpoint)));
+        boolean extensionsDifferent = diff.getChangedExtensions() != null && diff.getChangedExtensions().isDifferent();
+        return new OperationDiff(results, newEndpoints, diff.isDifferent(), extensionsDifferent);
+    }
+
+    // Lays per-operation results out as a full compare lists them: new endpoints, then the
+    // reference operations missing from the generated contract, then the changed ones
+    private static DiffResult assemble(OpenAPI reference, OperationDiff diff, List<String> missingOperationIds, List<String> duplicateOperationIds) {
+        List<StructureChange> structureChanges = new ArrayList<>(diff.newEndpoints());
+        List<MetadataChange> metadataChanges = new ArrayList<>();
+        List<StructureChange> changedOperations = new ArrayList<>();
+        boolean different = diff.different();
+        for (OperationKey key : operationsInDocumentOrder(reference)) {
+            IncrementalDiffCache.OperationResult result = diff.results().get(key);
+            if (result == null) {
+                structureChanges.add(missingEndpoint(key.method().toString(), key.path()));
+                different = true;
+                continue;
+            }
+            if (result.structureChange() != null) changedOperations.add(result.structureChange());
+            metadataChanges.addAll(result.metadataChanges());
+            different |= result.different();
+        }
+        structureChanges.addAll(changedOperations);
+        return new DiffResult(metadataChanges, structureChanges, different, missingOperationIds, duplicateOperationIds);
+    }
+
+    private static List<OperationKey> operationsInDocumentOrder(OpenAPI spec) {
+        List<OperationKey> operations = new ArrayList<>();
+        if (spec.getPaths() == null) return operations;
+        spec.getPaths().forEach((url, pathItem) -> pathItem.readOperationsMap().keySet().forEach(method ->
+                operations.add(new OperationKey(url, method))));
+        return operations;
     }
 
-    private OpenAPI filterGeneratedOpenApi(OpenAPI pmOpenAPI, OpenAPI genOpenAPI, List<String> missingOperationIds) {
+    private void enterPhase(CompareListener listener, CompareMetrics.Trace trace, ComparePhase phase) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Comparison cancelled before " + phase);
+        }
+        trace.enter(phase);
+        listener.onPhase(phase);
+    }
+
+    private static String serviceName(OpenAPI spec) {
+        String title = spec.getInfo() != null ? spec.getInfo().getTitle() : null;
+        return title != null && !title.isBlank() ? title.strip() : "unnamed";
+    }
+
+    private static int operationCount(OpenAPI spec) {
+        if (spec.getPaths() == null) return 0;
+        int count = 0;
+        for (PathItem pathItem : spec.getPaths().values()) {
+            count += pathItem.readOperations().size();
+        }
+        return count;
+    }
+
+    OpenAPI parseContents(String content) {
+        return parseContents(content, null);
+    }
+
+    // location, when known, lets relative $refs of a fetched contract resolve against its URL
+    private OpenAPI parseContents(String content, String location) {
+        return new OpenAPIV3Parser().readContents(content, null, parseOptions(), location).getOpenAPI();
+    }
+
+    private ParseOptions parseOptions() {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        return options;
+    }
+
+    OpenAPI filterGeneratedOpenApi(OpenAPI pmOpenAPI, OpenAPI genOpenAPI, OperationIndex genIndex, List<String> missingOperationIds) {
         OpenAPI filteredGenOpenAPI = new OpenAPI();
         filteredGenOpenAPI.setOpenapi(genOpenAPI.getOpenapi());
         filteredGenOpenAPI.setInfo(genOpenAPI.getInfo());
@@ -140,7 +526,7 @@ public class OpenApiDiffService {
             PathItem genPathItem = new PathItem();
             pmPathItem.readOperationsMap().forEach((method, pmOp) -> {
                 String opId = pmOp.getOperationId();
-                Operation foundGenOp = findOperation(genOpenAPI, path, method, opId);
+                Operation foundGenOp = genIndex.find(path, method, opId);
                 if (foundGenOp != null) {
                     setOperationByMethod(genPathItem, method, foundGenOp);
                 } else {
@@ -155,180 +541,202 @@ public class OpenApiDiffService {
         return filteredGenOpenAPI;
     }
 
-    private List<StructureChange> extractStructureChanges(ChangedOpenApi diff) {
+    List<StructureChange> extractStructureChanges(ChangedOpenApi diff) {
+        // Shared across operations: a changed component schema is walked once per compare
+        return extractStructureChanges(diff, new SchemaTraversal<>(OpenApiDiffService::expandSchemaDetails), new StringDictionary());
+    }
+
+    private static List<StructureChange> extractStructureChanges(ChangedOpenApi diff, SchemaTraversal<ChangedSchema, ChangeDetails.Node> schemaDetails,
+                                                                 StringDictionary dictionary) {
         List<StructureChange> changes = new ArrayList<>();
+        OpenAPI reference = diff.getOldSpecOpenApi();
 
         // New Endpoints
-        diff.getNewEndpoints().forEach(endpoint -> {
-            changes.add(new StructureChange(endpoint.getMethod().toString(), endpoint.getPathUrl(), "NEW", 
-                List.of("Endpoint added in generated contract"), false));
-        });
+        diff.getNewEndpoints().forEach(endpoint -> changes.add(newEndpoint(endpoint)));
 
         // Missing Endpoints
-        diff.getMissingEndpoints().forEach(endpoint -> {
-            changes.add(new StructureChange(endpoint.getMethod().toString(), endpoint.getPathUrl(), "REMOVED", 
-                List.of("Endpoint missing from generated contract"), true));
-        });
+        inDocumentOrder(reference, diff.getMissingEndpoints(), Endpoint::getPathUrl, Endpoint::getMethod).forEach(endpoint ->
+                changes.add(missingEndpoint(endpoint.getMethod().toString(), endpoint.getPathUrl())));
 
         // Changed Operations
-        diff.getChangedOperations().forEach(op -> {
-            List<String> details = new ArrayList<>();
-            
-            if (op.getParameters() != null && op.getParameters().isDifferent()) {
-                op.getParameters().getIncreased().forEach(p -> details.add("Added parameter: " + p.getName()));
-                op.getParameters().getMissing().forEach(p -> details.add("Removed parameter: " + p.getName()));
-                op.getParameters().getChanged().forEach(p -> details.add("Changed parameter: " + p.getName()));
-            }
-
-            if (op.getApiResponses() != null && op.getApiResponses().isDifferent()) {
-                op.getApiResponses().getIncreased().forEach((code, resp) -> details.add("Added response: " + code));
-                op.getApiResponses().getMissing().forEach((code, resp) -> details.add("Removed response: " + code));
-                op.getApiResponses().getChanged().forEach((code, resp) -> {
-                    details.add("Changed response: " + code);
-                    if (resp.getContent() != null && resp.getContent().isDifferent()) {
-                        resp.getContent().getChanged().forEach((mediaType, change) -> {
-                            details.add("  Media Type: " + mediaType);
-                            if (change.getSchema() != null && change.getSchema().isDifferent()) {
-                                extractSchemaDetails(change.getSchema(), "    ", details);
-                            }
-                        });
-                    }
-                });
-            }
-
-            if (!details.isEmpty() || !op.isCompatible()) {
-                changes.add(new StructureChange(op.getHttpMethod().toString(), op.getPathUrl(), "CHANGED", 
-                    details.isEmpty() ? List.of("Structural changes detected") : details, !op.isCompatible()));
-            }
+        inDocumentOrder(reference, diff.getChangedOperations(), ChangedOperation::getPathUrl, ChangedOperation::getHttpMethod).forEach(op -> {
+            StructureChange change = structureChangeOf(op, schemaDetails, dictionary);
+            if (change != null) changes.add(change);
         });
 
         return changes;
     }
 
-    private void extractSchemaDetails(ChangedSchema schema, String indent, List<String> details) {
+    private static StructureChange newEndpoint(Endpoint endpoint) {
+        return new StructureChange(endpoint.getMethod().toString(), endpoint.getPathUrl(), "NEW", ChangeDetails.ENDPOINT_ADDED, false);
+    }
+
+    private static StructureChange missingEndpoint(String method, String path) {
+        return new StructureChange(method, path, "REMOVED", ChangeDetails.ENDPOINT_MISSING, true);
+    }
+
+    private static StructureChange structureChangeOf(ChangedOperation op, SchemaTraversal<ChangedSchema, ChangeDetails.Node> schemaDetails,
+                                                     StringDictionary dictionary) {
+        ChangeDetails.Builder details = new ChangeDetails.Builder(dictionary);
+
+        if (op.getParameters() != null && op.getParameters().isDifferent()) {
+            op.getParameters().getIncreased().forEach(p -> details.add(ChangeDetails.Kind.ADDED_PARAMETER, p.getName(), 0));
+            op.getParameters().getMissing().forEach(p -> details.add(ChangeDetails.Kind.REMOVED_PARAMETER, p.getName(), 0));
+            op.getParameters().getChanged().forEach(p -> details.add(ChangeDetails.Kind.CHANGED_PARAMETER, p.getName(), 0));
+        }
+
+        if (op.getApiResponses() != null && op.getApiResponses().isDifferent()) {
+            op.getApiResponses().getIncreased().forEach((code, resp) -> details.add(ChangeDetails.Kind.ADDED_RESPONSE, code, 0));
+            op.getApiResponses().getMissing().forEach((code, resp) -> details.add(ChangeDetails.Kind.REMOVED_RESPONSE, code, 0));
+            op.getApiResponses().getChanged().forEach((code, resp) -> {
+                details.add(ChangeDetails.Kind.CHANGED_RESPONSE, code, 0);
+                if (resp.getContent() != null && resp.getContent().isDifferent()) {
+                    resp.getContent().getChanged().forEach((mediaType, change) -> {
+                        details.add(ChangeDetails.Kind.MEDIA_TYPE, mediaType, 1);
+                        if (change.getSchema() != null && change.getSchema().isDifferent()) {
+                            // Labels carry only the indentation: two levels under the media type, one more per schema level
+                            schemaDetails.walk(change.getSchema(), "    ").forEach(entry ->
+                                    details.add(entry.payload().kind(), entry.payload().name(), entry.label().length() / 2));
+                        }
+                    });
+                }
+            });
+        }
+
+        if (details.isEmpty() && op.isCompatible()) return null;
+        return new StructureChange(op.getHttpMethod().toString(), dictionary.intern(op.getPathUrl()), "CHANGED",
+            details.isEmpty() ? ChangeDetails.STRUCTURAL_CHANGES : details.build(), !op.isCompatible());
+    }
+
+    // The diff engine reports operations in the order its deferred schema diffs resolve:
+    // list them as the reference declares them, as an incremental compare does
+    private static <T> List<T> inDocumentOrder(OpenAPI reference, List<T> items, Function<T, String> path, Function<T, PathItem.HttpMethod> method) {
+        if (reference == null || reference.getPaths() == null || items.size() < 2) return items;
+        Map<OperationKey, Integer> positions = new HashMap<>();
+        reference.getPaths().forEach((url, pathItem) -> pathItem.readOperationsMap().keySet().forEach(m ->
+                positions.put(new OperationKey(url, m), positions.size())));
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(item -> positions.getOrDefault(new OperationKey(path.apply(item), method.apply(item)), Integer.MAX_VALUE)));
+        return sorted;
+    }
+
+    private static void expandSchemaDetails(ChangedSchema schema, SchemaTraversal.Children<ChangedSchema, ChangeDetails.Node> children) {
         if (schema.getMissingProperties() != null) {
-            schema.getMissingProperties().forEach((name, s) -> details.add(indent + "Missing property: " + name));
+            schema.getMissingProperties().forEach((name, s) -> children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.MISSING_PROPERTY, name)));
         }
         if (schema.getIncreasedProperties() != null) {
-            schema.getIncreasedProperties().forEach((name, s) -> details.add(indent + "New property: " + name));
+            schema.getIncreasedProperties().forEach((name, s) -> children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.NEW_PROPERTY, name)));
         }
         if (schema.getChangedProperties() != null) {
             schema.getChangedProperties().forEach((name, s) -> {
-                details.add(indent + "Changed property: " + name);
-                extractSchemaDetails(s, indent + "  ", details);
+                children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.CHANGED_PROPERTY, name));
+                children.descend("  ", s);
             });
         }
         if (schema.getItems() != null && schema.getItems().isDifferent()) {
-            details.add(indent + "Items changed:");
-            extractSchemaDetails(schema.getItems(), indent + "  ", details);
+            children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.ITEMS_CHANGED, null));
+            children.descend("  ", schema.getItems());
+        }
+        // allOf/anyOf members are merged into the properties above by the diff engine
+        ChangedOneOfSchema oneOf = schema.getOneOfSchema();
+        if (oneOf != null && oneOf.isDifferent()) {
+            oneOf.getIncreased().keySet().forEach(name -> children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.NEW_ONE_OF, name)));
+            oneOf.getMissing().keySet().forEach(name -> children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.MISSING_ONE_OF, name)));
+            oneOf.getChanged().forEach((name, s) -> {
+                children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.CHANGED_ONE_OF, name));
+                children.descend("  ", s);
+            });
+        }
+        if (schema.getAddProp() != null && schema.getAddProp().isDifferent()) {
+            children.emit("", new ChangeDetails.Node(ChangeDetails.Kind.ADDITIONAL_PROPERTIES_CHANGED, null));
+            children.descend("  ", schema.getAddProp());
         }
     }
 
-    private List<MetadataChange> extractMetadataChanges(ChangedOpenApi diff) {
-        List<MetadataChange> changes = new ArrayList<>();
-        diff.getChangedOperations().forEach(op -> {
-            String path = op.getPathUrl();
-            String method = op.getHttpMethod().toString();
-
-            if (op.getSummary() != null && op.getSummary().isDifferent()) {
-                changes.add(new MetadataChange(path, method, "Summary", 
-                        String.valueOf(op.getSummary().getLeft()), 
-                        String.valueOf(op.getSummary().getRight())));
-            }
-
-            if (op.getDescription() != null && op.getDescription().isDifferent()) {
-                changes.add(new MetadataChange(path, method, "Description", 
-                        String.valueOf(op.getDescription().getLeft()), 
-                        String.valueOf(op.getDescription().getRight())));
-            }
-
-            // Parameters
-            if (op.getParameters() != null) {
-                op.getParameters().getChanged().forEach(param -> {
-                    if (param.getDescription() != null && param.getDescription().isDifferent()) {
-                        changes.add(new MetadataChange(path, method, "Param: " + param.getName(), 
-                                String.valueOf(param.getDescription().getLeft()), 
-                                String.valueOf(param.getDescription().getRight())));
-                    }
-                });
-            }
+    List<MetadataChange> extractMetadataChanges(ChangedOpenApi diff) {
+        return extractMetadataChanges(diff, new SchemaTraversal<>(OpenApiDiffService::expandSchemaDescriptions), new StringDictionary());
+    }
 
-            // Responses Descriptions
-            if (op.getApiResponses() != null) {
-                op.getApiResponses().getChanged().forEach((code, resp) -> {
-                    if (resp.getDescription() != null && resp.getDescription().isDifferent()) {
-                        changes.add(new MetadataChange(path, method, "Response " + code + " Description",
-                                String.valueOf(resp.getDescription().getLeft()),
-                                String.valueOf(resp.getDescription().getRight())));
-                    }
-                    // Deep schema metadata
-                    if (resp.getContent() != null) {
-                        resp.getContent().getChanged().forEach((mediaType, content) -> {
-                            if (content.getSchema() != null) {
-                                extractSchemaMetadataChanges(path, method, "Response " + code + " Schema", content.getSchema(), changes);
-                            }
-                        });
-                    }
-                });
-            }
-        });
+    private static List<MetadataChange> extractMetadataChanges(ChangedOpenApi diff, SchemaTraversal<ChangedSchema, ChangedMetadata> schemaDescriptions,
+                                                               StringDictionary dictionary) {
+        List<MetadataChange> changes = new ArrayList<>();
+        inDocumentOrder(diff.getOldSpecOpenApi(), diff.getChangedOperations(), ChangedOperation::getPathUrl, ChangedOperation::getHttpMethod)
+                .forEach(op -> collectMetadataChanges(op, schemaDescriptions, dictionary, changes));
         return changes;
     }
 
-    private void extractSchemaMetadataChanges(String path, String method, String prefix, ChangedSchema schema, List<MetadataChange> changes) {
-        if (schema.getDescription() != null && schema.getDescription().isDifferent()) {
-            changes.add(new MetadataChange(path, method, prefix + " Description",
-                    String.valueOf(schema.getDescription().getLeft()),
-                    String.valueOf(schema.getDescription().getRight())));
-        }
-        if (schema.getChangedProperties() != null) {
-            schema.getChangedProperties().forEach((name, prop) -> {
-                extractSchemaMetadataChanges(path, method, prefix + " -> " + name, prop, changes);
-            });
+    // Field labels repeat across operations sharing a schema: the dictionary keeps one of each
+    private static void collectMetadataChanges(ChangedOperation op, SchemaTraversal<ChangedSchema, ChangedMetadata> schemaDescriptions,
+                                               StringDictionary dictionary, List<MetadataChange> changes) {
+        String path = dictionary.intern(op.getPathUrl());
+        String method = op.getHttpMethod().toString();
+
+        if (op.getSummary() != null && op.getSummary().isDifferent()) {
+            changes.add(new MetadataChange(path, method, "Summary", 
+                    String.valueOf(op.getSummary().getLeft()), 
+                    String.valueOf(op.getSummary().getRight())));
         }
-        if (schema.getItems() != null && schema.getItems().isDifferent()) {
-            extractSchemaMetadataChanges(path, method, prefix + " (items)", schema.getItems(), changes);
+
+        if (op.getDescription() != null && op.getDescription().isDifferent()) {
+            changes.add(new MetadataChange(path, method, "Description", 
+                    String.valueOf(op.getDescription().getLeft()), 
+                    String.valueOf(op.getDescription().getRight())));
         }
-    }
 
-    private void normalizeAllDescriptions(OpenAPI openAPI) {
-        if (openAPI.getPaths() != null) {
-            openAPI.getPaths().values().forEach(pathItem -> {
-                pathItem.readOperationsMap().values().forEach(operation -> {
-                    operation.setDescription(normalizeText(operation.getDescription()));
-                    operation.setSummary(normalizeText(operation.getSummary()));
-                    if (operation.getParameters() != null) {
-                        operation.getParameters().forEach(p -> p.setDescription(normalizeText(p.getDescription())));
-                    }
-                });
+        // Parameters
+        if (op.getParameters() != null) {
+            op.getParameters().getChanged().forEach(param -> {
+                if (param.getDescription() != null && param.getDescription().isDifferent()) {
+                    changes.add(new MetadataChange(path, method, dictionary.intern("Param: " + param.getName()), 
+                            String.valueOf(param.getDescription().getLeft()), 
+                            String.valueOf(param.getDescription().getRight())));
+                }
             });
         }
-        if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
-            openAPI.getComponents().getSchemas().values().forEach(this::normalizeSchemaDescription);
+
+        // Responses Descriptions
+        if (op.getApiResponses() != null) {
+            op.getApiResponses().getChanged().forEach((code, resp) -> {
+                if (resp.getDescription() != null && resp.getDescription().isDifferent()) {
+                    changes.add(new MetadataChange(path, method, dictionary.intern("Response " + code + " Description"),
+                            String.valueOf(resp.getDescription().getLeft()),
+                            String.valueOf(resp.getDescription().getRight())));
+                }
+                // Deep schema metadata
+                if (resp.getContent() != null) {
+                    resp.getContent().getChanged().forEach((mediaType, content) -> {
+                        if (content.getSchema() != null) {
+                            schemaDescriptions.walk(content.getSchema(), "Response " + code + " Schema").forEach(entry ->
+                                    changes.add(new MetadataChange(path, method, dictionary.intern(entry.label()),
+                                            String.valueOf(entry.payload().getLeft()),
+                                            String.valueOf(entry.payload().getRight()))));
+                        }
+                    });
+                }
+            });
         }
     }
 
-    private void normalizeSchemaDescription(Schema schema) {
-        if (schema == null) return;
-        schema.setDescription(normalizeText(schema.getDescription()));
-        if (schema.getProperties() != null) {
-            ((Map<String, Schema>) schema.getProperties()).values().forEach(this::normalizeSchemaDescription);
+    private static void expandSchemaDescriptions(ChangedSchema schema, SchemaTraversal.Children<ChangedSchema, ChangedMetadata> children) {
+        if (schema.getDescription() != null && schema.getDescription().isDifferent()) {
+            children.emit(" Description", schema.getDescription());
         }
-        if (schema.getItems() != null) {
-            normalizeSchemaDescription(schema.getItems());
+        if (schema.getChangedProperties() != null) {
+            schema.getChangedProperties().forEach((name, prop) -> children.descend(" -> " + name, prop));
+        }
+        if (schema.getItems() != null && schema.getItems().isDifferent()) {
+            children.descend(" (items)", schema.getItems());
+        }
+        if (schema.getOneOfSchema() != null) {
+            schema.getOneOfSchema().getChanged().forEach((name, s) -> children.descend(" (oneOf " + name + ")", s));
+        }
+        if (schema.getAddProp() != null && schema.getAddProp().isDifferent()) {
+            children.descend(" (additionalProperties)", schema.getAddProp());
         }
     }
 
-    private String normalizeText(String text) {
-        if (text == null) return null;
-        return text.replaceAll("\\s+", " ").trim();
-    }
-
-    private String renderToString(Render render, ChangedOpenApi diff) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-        render.render(diff, writer);
-        return baos.toString(StandardCharsets.UTF_8);
+    void normalizeAllDescriptions(OpenAPI openAPI) {
+        DescriptionNormalizer.normalize(openAPI);
     }
 
     private void setOperationByMethod(PathItem pathItem, PathItem.HttpMethod method, Operation operation) {
@@ -343,21 +751,4 @@ public class OpenApiDiffService {
             case TRACE -> pathItem.setTrace(operation);
         }
     }
-
-    private Operation findOperation(OpenAPI spec, String path, PathItem.HttpMethod method, String operationId) {
-        if (operationId != null && !operationId.isEmpty()) {
-            for (PathItem pi : spec.getPaths().values()) {
-                for (Operation op : pi.readOperationsMap().values()) {
-                    if (operationId.equals(op.getOperationId())) {
-                        return op;
-                    }
-                }
-            }
-        }
-        PathItem pi = spec.getPaths().get(path);
-        if (pi != null) {
-            return pi.readOperationsMap().get(method);
-        }
-        return null;
-    }
 }
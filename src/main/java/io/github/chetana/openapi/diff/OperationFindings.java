@@ -0,0 +1,40 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes of a {@link DiffResult} grouped by operation, for the report formats that present
+ * one section per endpoint. Operations keep the order of the result.
+ */
+record OperationFindings(String method, String path, List<StructureChange> structureChanges, List<MetadataChange> metadataChanges) {
+
+    static List<OperationFindings> of(DiffResult result) {
+        Map<String, OperationFindings> byOperation = new LinkedHashMap<>();
+        for (StructureChange change : result.structureChanges()) {
+            findings(byOperation, change.method(), change.path()).structureChanges().add(change);
+        }
+        for (MetadataChange change : result.metadataChanges()) {
+            findings(byOperation, change.method(), change.path()).metadataChanges().add(change);
+        }
+        return new ArrayList<>(byOperation.values());
+    }
+
+    private static OperationFindings findings(Map<String, OperationFindings> byOperation, String method, String path) {
+        return byOperation.computeIfAbsent(method + " " + path,
+                key -> new OperationFindings(method, path, new ArrayList<>(), new ArrayList<>()));
+    }
+
+    boolean isBreaking() {
+        for (StructureChange change : structureChanges) {
+            if (change.isBreaking()) return true;
+        }
+        return false;
+    }
+}
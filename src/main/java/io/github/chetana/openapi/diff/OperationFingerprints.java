@@ -0,0 +1,167 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * SHA-256 fingerprints of the operations of a spec. An operation's fingerprint covers its own
+ * serialized form, the path-level parameters it inherits and every component it references,
+ * directly or transitively, so two operations with equal fingerprints diff identically.
+ */
+final class OperationFingerprints {
+
+    private static final String REF_MARKER = "\"$ref\":\"";
+
+    private record Component(byte[] digest, List<String> refs) {}
+
+    private final ObjectMapper mapper;
+    private final Components components;
+    private final Map<String, Component> componentsByRef = new HashMap<>();
+
+    private OperationFingerprints(OpenAPI spec) {
+        this.mapper = spec.getOpenapi() != null && spec.getOpenapi().startsWith("3.1") ? Json31.mapper() : Json.mapper();
+        this.components = spec.getComponents();
+    }
+
+    static Map<OperationKey, String> of(OpenAPI spec) {
+        OperationFingerprints fingerprints = new OperationFingerprints(spec);
+        Map<OperationKey, String> result = new LinkedHashMap<>();
+        if (spec.getPaths() == null) return result;
+        spec.getPaths().forEach((path, pathItem) -> pathItem.readOperationsMap().forEach((method, operation) ->
+                result.put(new OperationKey(path, method), fingerprints.operation(pathItem, operation))));
+        return result;
+    }
+
+    /**
+     * The operations reaching each component, directly or transitively, keyed by {@code $ref}
+     * and listed in document order.
+     */
+    static Map<String, List<OperationKey>> usages(OpenAPI spec) {
+        OperationFingerprints refs = new OperationFingerprints(spec);
+        Map<String, List<OperationKey>> usages = new HashMap<>();
+        if (spec.getPaths() == null) return usages;
+        spec.getPaths().forEach((path, pathItem) -> pathItem.readOperationsMap().forEach((method, operation) -> {
+            List<String> direct = new ArrayList<>(refsIn(write(refs.mapper, operation)));
+            if (pathItem.getParameters() != null) direct.addAll(refsIn(write(refs.mapper, pathItem.getParameters())));
+            OperationKey key = new OperationKey(path, method);
+            for (String ref : refs.reachableRefs(direct)) {
+                usages.computeIfAbsent(ref, r -> new ArrayList<>()).add(key);
+            }
+        }));
+        return usages;
+    }
+
+    /**
+     * Fingerprint of what every operation diff depends on besides the operation itself:
+     * global security, security schemes and top-level extensions of both specs.
+     */
+    static String global(OpenAPI reference, OpenAPI generated) {
+        Map<String, Object> shared = new LinkedHashMap<>();
+        shared.put("referenceVersion", reference.getOpenapi());
+        shared.put("referenceSecurity", reference.getSecurity());
+        shared.put("referenceSchemes", reference.getComponents() != null ? reference.getComponents().getSecuritySchemes() : null);
+        shared.put("referenceExtensions", reference.getExtensions());
+        shared.put("generatedVersion", generated.getOpenapi());
+        shared.put("generatedSecurity", generated.getSecurity());
+        shared.put("generatedSchemes", generated.getComponents() != null ? generated.getComponents().getSecuritySchemes() : null);
+        shared.put("generatedExtensions", generated.getExtensions());
+        return ReferenceContractCache.hash(write(Json.mapper(), shared));
+    }
+
+    private String operation(PathItem pathItem, Operation operation) {
+        MessageDigest digest = sha256();
+        String json = write(mapper, operation);
+        digest.update(json.getBytes(StandardCharsets.UTF_8));
+
+        List<String> refs = new ArrayList<>(refsIn(json));
+        if (pathItem.getParameters() != null) {
+            String parameters = write(mapper, pathItem.getParameters());
+            digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+            refs.addAll(refsIn(parameters));
+        }
+
+        // Sorted so that the fingerprint does not depend on the order references are met
+        for (String ref : reachableRefs(refs)) {
+            digest.update(ref.getBytes(StandardCharsets.UTF_8));
+            Component component = component(ref);
+            if (component != null) digest.update(component.digest());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Set<String> reachableRefs(List<String> direct) {
+        Set<String> seen = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(direct);
+        while (!pending.isEmpty()) {
+            String ref = pending.pop();
+            if (!seen.add(ref)) continue;
+            Component component = component(ref);
+            if (component != null) pending.addAll(component.refs());
+        }
+        return seen;
+    }
+
+    private Component component(String ref) {
+        if (componentsByRef.containsKey(ref)) return componentsByRef.get(ref);
+        Object value = SpecSlicer.resolve(components, ref);
+        Component component = null;
+        if (value != null) {
+            String json = write(mapper, value);
+            component = new Component(sha256().digest(json.getBytes(StandardCharsets.UTF_8)), refsIn(json));
+        }
+        componentsByRef.put(ref, component);
+        return component;
+    }
+
+    private static List<String> refsIn(String json) {
+        List<String> refs = null;
+        int from = 0;
+        int at;
+        while ((at = json.indexOf(REF_MARKER, from)) >= 0) {
+            int start = at + REF_MARKER.length();
+            int end = json.indexOf('"', start);
+            if (end < 0) break;
+            if (refs == null) refs = new ArrayList<>();
+            refs.add(json.substring(start, end));
+            from = end + 1;
+        }
+        return refs != null ? refs : Collections.emptyList();
+    }
+
+    private static String write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
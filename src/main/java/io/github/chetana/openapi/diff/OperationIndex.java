@@ -0,0 +1,75 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One-time index of the operations of a spec, by operationId and by (path, method).
+ * When an operationId is declared more than once, the first operation in document order wins
+ * and the id is reported as a duplicate.
+ */
+final class OperationIndex {
+
+    private final Map<String, Operation> byOperationId;
+    private final Map<String, Map<PathItem.HttpMethod, Operation>> byPath;
+    private final Set<String> duplicateOperationIds = new LinkedHashSet<>();
+    private int operationCount;
+
+    private OperationIndex(int expectedOperations) {
+        // Sized from the pre-scan so that large specs are indexed without rehashing
+        int capacity = Math.max(16, (int) (expectedOperations / 0.75f) + 1);
+        this.byOperationId = new HashMap<>(capacity);
+        this.byPath = new HashMap<>(capacity);
+    }
+
+    static OperationIndex of(OpenAPI spec) {
+        return of(spec, 0);
+    }
+
+    static OperationIndex of(OpenAPI spec, int expectedOperations) {
+        OperationIndex index = new OperationIndex(expectedOperations);
+        if (spec.getPaths() == null) return index;
+
+        spec.getPaths().forEach((path, pathItem) -> {
+            Map<PathItem.HttpMethod, Operation> operations = pathItem.readOperationsMap();
+            Map<PathItem.HttpMethod, Operation> byMethod = new EnumMap<>(PathItem.HttpMethod.class);
+            byMethod.putAll(operations);
+            index.byPath.put(path, byMethod);
+
+            index.operationCount += operations.size();
+            operations.values().forEach(op -> {
+                String opId = op.getOperationId();
+                if (opId != null && !opId.isEmpty() && index.byOperationId.putIfAbsent(opId, op) != null) {
+                    index.duplicateOperationIds.add(opId);
+                }
+            });
+        });
+        return index;
+    }
+
+    Operation find(String path, PathItem.HttpMethod method, String operationId) {
+        if (operationId != null && !operationId.isEmpty()) {
+            Operation op = byOperationId.get(operationId);
+            if (op != null) return op;
+        }
+        Map<PathItem.HttpMethod, Operation> operations = byPath.get(path);
+        return operations != null ? operations.get(method) : null;
+    }
+
+    int operationCount() {
+        return operationCount;
+    }
+
+    List<String> duplicateOperationIds() {
+        return new ArrayList<>(duplicateOperationIds);
+    }
+}
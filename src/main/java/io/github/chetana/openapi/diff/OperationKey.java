@@ -0,0 +1,9 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.PathItem;
+
+/**
+ * An operation of a spec, identified by the reference path it is compared under and its method.
+ */
+record OperationKey(String path, PathItem.HttpMethod method) {
+}
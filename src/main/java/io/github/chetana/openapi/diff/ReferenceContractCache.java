@@ -0,0 +1,152 @@
+package io.github.chetana.openapi.diff;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Parsed and normalized reference contracts keyed by the SHA-256 of their content.
+ * Entries are evicted least-recently-used once either the entry count or the estimated
+ * model weight exceeds its limit. Every caller receives the cached instance itself: it is
+ * read-only, which the loader ensures by making beforehand the changes the diff engine
+ * would make to it ({@link EngineRewrites}).
+ */
+@Component
+public class ReferenceContractCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceContractCache.class);
+
+    // A resolved swagger model is roughly an order of magnitude larger on heap than its source text.
+    private static final int MODEL_BYTES_PER_CHAR = 10;
+
+    public record Stats(long hits, long misses, long evictions, int entries, long weightBytes) {}
+
+    private record Entry(OpenAPI model, long weight) {}
+
+    private final int maxEntries;
+    private final long maxWeightBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ConcurrentHashMap<String, CompletableFuture<OpenAPI>> inFlight = new ConcurrentHashMap<>();
+
+    private long weightBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReferenceContractCache() {
+        this(32, 512);
+    }
+
+    @Autowired
+    public ReferenceContractCache(@Value("${openapi-diff.reference-cache.max-entries:32}") int maxEntries,
+                                  @Value("${openapi-diff.reference-cache.max-weight-mb:512}") long maxWeightMb) {
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightMb * 1024 * 1024;
+    }
+
+    /**
+     * Returns the shared, read-only model for {@code content}, building it with {@code loader}
+     * on a miss. A {@code null} model from the loader is returned as-is and not cached.
+     */
+    public OpenAPI get(String content, Function<String, OpenAPI> loader) {
+        String key = hash(content);
+        Entry entry = lookup(key);
+        if (entry != null) {
+            return entry.model();
+        }
+
+        // Concurrent misses on the same contract (e.g. a batch sharing one reference) wait for
+        // a single parse instead of each parsing it again.
+        CompletableFuture<OpenAPI> loading = new CompletableFuture<>();
+        CompletableFuture<OpenAPI> inProgress = inFlight.putIfAbsent(key, loading);
+        if (inProgress != null) {
+            return awaitLoad(inProgress);
+        }
+
+        try {
+            OpenAPI model = loader.apply(content);
+            long weight = (long) content.length() * MODEL_BYTES_PER_CHAR;
+            if (model != null && maxEntries > 0 && weight <= maxWeightBytes) {
+                put(key, new Entry(model, weight));
+            }
+            loading.complete(model);
+            return model;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), weightBytes);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weightBytes = 0;
+    }
+
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) hits++;
+        else misses++;
+        return entry;
+    }
+
+    private OpenAPI awaitLoad(CompletableFuture<OpenAPI> loading) {
+        try {
+            OpenAPI shared = loading.join();
+            synchronized (this) {
+                misses--;
+                hits++;
+            }
+            return shared;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) weightBytes -= previous.weight();
+        weightBytes += entry.weight();
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weightBytes > maxWeightBytes) && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            if (evicted.getKey().equals(key)) continue;
+            weightBytes -= evicted.getValue().weight();
+            eldest.remove();
+            evictions++;
+        }
+        log.debug("Reference cache: {} entries, {} bytes, {} hits, {} misses", entries.size(), weightBytes, hits, misses);
+    }
+
+    static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
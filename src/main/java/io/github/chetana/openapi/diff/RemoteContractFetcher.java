@@ -0,0 +1,281 @@
+package io.github.chetana.openapi.diff;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Downloads generated contracts exposed over HTTP (e.g. springdoc {@code /v3/api-docs}) with
+ * a connect timeout, a read timeout covering headers and body, and a payload cap. Bodies are
+ * kept in memory, up to a count and a total size, and optionally on disk, and revalidated with
+ * {@code If-None-Match}/{@code If-Modified-Since} so an unchanged spec is not downloaded again.
+ */
+@Component
+public class RemoteContractFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteContractFetcher.class);
+
+    private record Fetched(String body, String etag, String lastModified) {
+        long weight() {
+            // Two bytes per char: the bodies are not all Latin-1
+            return 2L * body.length();
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final long maxBytes;
+    private final int maxEntries;
+    private final long maxCacheBytes;
+    private final Path cacheDir;
+    private final Map<String, Fetched> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+
+    public RemoteContractFetcher() {
+        this(Duration.ofSeconds(5), Duration.ofSeconds(30), 20, 64, 128, "");
+    }
+
+    @Autowired
+    public RemoteContractFetcher(@Value("${openapi-diff.fetch.connect-timeout:5s}") Duration connectTimeout,
+                                 @Value("${openapi-diff.fetch.read-timeout:30s}") Duration readTimeout,
+                                 @Value("${openapi-diff.fetch.max-size-mb:20}") long maxSizeMb,
+                                 @Value("${openapi-diff.fetch.cache-entries:64}") int maxEntries,
+                                 @Value("${openapi-diff.fetch.cache-max-mb:128}") long maxCacheMb,
+                                 @Value("${openapi-diff.fetch.cache-dir:}") String cacheDir) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.readTimeout = readTimeout;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.maxEntries = maxEntries;
+        this.maxCacheBytes = maxCacheMb * 1024 * 1024;
+        this.cacheDir = cacheDir == null || cacheDir.isBlank() ? null : Path.of(cacheDir);
+    }
+
+    public String fetch(String url) throws IOException, InterruptedException {
+        Fetched cached = lookup(url);
+        HttpResponse<String> response = send(url, cached);
+        if (response.statusCode() == 304) {
+            if (cached != null) {
+                log.debug("{} not modified, reusing cached body", url);
+                return cached.body();
+            }
+            // Nothing to reuse, e.g. a cache between us and the server revalidated for itself:
+            // ask once more, unconditionally, for the body
+            log.debug("{} answered 304 with no cached body, fetching it again", url);
+            response = send(url, null);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("GET " + url + " returned HTTP " + response.statusCode());
+        }
+
+        String body = response.body();
+        Fetched fetched = new Fetched(body,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+        if (fetched.etag() != null || fetched.lastModified() != null) {
+            store(url, fetched);
+        }
+        return body;
+    }
+
+    private HttpResponse<String> send(String url, Fetched cached) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(readTimeout)
+                .header("Accept", "application/json, application/yaml, application/x-yaml, text/yaml, */*");
+        if (cached != null && cached.etag() != null) request.header("If-None-Match", cached.etag());
+        if (cached != null && cached.lastModified() != null) request.header("If-Modified-Since", cached.lastModified());
+        return await(httpClient.sendAsync(request.GET().build(), info -> bodyOf(info, url)), url);
+    }
+
+    // The request timeout only covers the response headers: waiting on the whole exchange bounds
+    // a server that stalls in the middle of the body, and cancelling it closes the connection
+    private HttpResponse<String> await(CompletableFuture<HttpResponse<String>> exchange, String url) throws IOException, InterruptedException {
+        try {
+            return exchange.get(readTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException("Reading " + url + " took longer than " + readTimeout);
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) throw cause;
+            throw new IOException("GET " + url + " failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Only a successful response has its body read, and never beyond the cap
+    private HttpResponse.BodySubscriber<String> bodyOf(HttpResponse.ResponseInfo info, String url) {
+        if (info.statusCode() / 100 != 2) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        long declaredLength = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+        if (declaredLength > maxBytes) {
+            return new CappedBody(new IOException("Contract at " + url + " is " + declaredLength + " bytes, above the " + maxBytes + " bytes limit"));
+        }
+        return new CappedBody(maxBytes, url);
+    }
+
+    /** Collects a body as UTF-8 text, cancelling the download as soon as it exceeds the cap. */
+    private static final class CappedBody implements HttpResponse.BodySubscriber<String> {
+
+        private final CompletableFuture<String> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final long maxBytes;
+        private final String url;
+        private Flow.Subscription subscription;
+
+        CappedBody(long maxBytes, String url) {
+            this.maxBytes = maxBytes;
+            this.url = url;
+        }
+
+        // Refused before any byte is read
+        CappedBody(IOException refusal) {
+            this(0, null);
+            body.completeExceptionally(refusal);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (body.isDone()) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) return;
+            for (ByteBuffer buffer : buffers) {
+                if (out.size() + (long) buffer.remaining() > maxBytes) {
+                    subscription.cancel();
+                    body.completeExceptionally(new IOException("Contract at " + url + " exceeds the " + maxBytes + " bytes limit"));
+                    return;
+                }
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.write(bytes, 0, bytes.length);
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            body.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(out.toString(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return body;
+        }
+    }
+
+    private Fetched lookup(String url) {
+        synchronized (memoryCache) {
+            Fetched fetched = memoryCache.get(url);
+            if (fetched != null) return fetched;
+        }
+        Fetched fromDisk = readFromDisk(url);
+        if (fromDisk != null) remember(url, fromDisk);
+        return fromDisk;
+    }
+
+    private void store(String url, Fetched fetched) {
+        remember(url, fetched);
+        writeToDisk(url, fetched);
+    }
+
+    private void remember(String url, Fetched fetched) {
+        if (maxEntries <= 0 || fetched.weight() > maxCacheBytes) return;
+        synchronized (memoryCache) {
+            Fetched previous = memoryCache.put(url, fetched);
+            if (previous != null) cacheBytes -= previous.weight();
+            cacheBytes += fetched.weight();
+            Iterator<Map.Entry<String, Fetched>> eldest = memoryCache.entrySet().iterator();
+            while ((memoryCache.size() > maxEntries || cacheBytes > maxCacheBytes) && eldest.hasNext()) {
+                Map.Entry<String, Fetched> evicted = eldest.next();
+                if (evicted.getKey().equals(url)) continue;
+                cacheBytes -= evicted.getValue().weight();
+                eldest.remove();
+            }
+        }
+    }
+
+    // One file per URL: the validators on the first lines, then the body. A single atomic move
+    // replaces both, so a crash or a concurrent write never pairs a body with another's ETag
+    private Fetched readFromDisk(String url) {
+        if (cacheDir == null) return null;
+        Path file = cacheDir.resolve(ReferenceContractCache.hash(url) + ".cached");
+        if (!Files.isRegularFile(file)) return null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String cachedUrl = reader.readLine();
+            String etag = reader.readLine();
+            String lastModified = reader.readLine();
+            if (!url.equals(cachedUrl) || lastModified == null) return null;
+            StringWriter body = new StringWriter();
+            reader.transferTo(body);
+            return new Fetched(body.toString(), etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable fetch cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String url, Fetched fetched) {
+        if (cacheDir == null) return;
+        String key = ReferenceContractCache.hash(url);
+        try {
+            Files.createDirectories(cacheDir);
+            Path tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            // Header values cannot hold line breaks: HTTP does not allow them
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(url + "\n");
+                writer.write((fetched.etag() == null ? "" : fetched.etag()) + "\n");
+                writer.write((fetched.lastModified() == null ? "" : fetched.lastModified()) + "\n");
+                writer.write(fetched.body());
+            }
+            Files.move(tmp, cacheDir.resolve(key + ".cached"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write fetch cache entry for {}: {}", url, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The formats a {@link DiffResult} can be written in. Nothing is rendered during a compare: a
+ * report is streamed to its {@link Writer} only when it is asked for.
+ */
+public enum ReportFormat {
+    JSON("json", "application/json", DiffResultJsonWriter::write),
+    CSV("csv", "text/csv", CsvDiffWriter::write),
+    NDJSON("ndjson", "application/x-ndjson", NdjsonDiffWriter::write),
+    TEXT("txt", "text/plain", TextReportWriter::write),
+    MARKDOWN("md", "text/markdown", MarkdownReportWriter::write),
+    HTML("html", "text/html", HtmlReportWriter::write),
+    JUNIT("xml", "application/xml", JUnitReportWriter::write);
+
+    @FunctionalInterface
+    interface Renderer {
+        void render(DiffResult result, Writer out) throws IOException;
+    }
+
+    private final String extension;
+    private final String contentType;
+    private final Renderer renderer;
+
+    ReportFormat(String extension, String contentType, Renderer renderer) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.renderer = renderer;
+    }
+
+    /** Lower-case name used by the API, the CLI and the metrics. */
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    Renderer renderer() {
+        return renderer;
+    }
+
+    public static ReportFormat of(String id) {
+        for (ReportFormat format : values()) {
+            if (format.id().equalsIgnoreCase(id)) return format;
+        }
+        throw new IllegalArgumentException("Unsupported format '" + id + "', expected "
+                + Arrays.stream(values()).map(ReportFormat::id).collect(Collectors.joining(", ")) + ".");
+    }
+}
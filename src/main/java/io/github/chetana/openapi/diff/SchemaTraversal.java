@@ -0,0 +1,164 @@
+package io.github.chetana.openapi.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Iterative depth-first walk over schema graphs (swagger {@code Schema} or openapi-diff
+ * {@code ChangedSchema}), shared by the normalizer and the change extractors.
+ * <p>
+ * The {@link Expander} lists, in order, the entries a node produces and the children to descend
+ * into; each entry is labelled with the path prefix accumulated from the root. Nodes are tracked
+ * by identity: a node already on the current path (a recursive model) or beyond
+ * {@link #MAX_DEPTH} is not descended into, and a node seen earlier in the same traversal is not
+ * walked again: its entries are replayed under the new prefix. One instance is meant to live for
+ * a single compare, so every shared component schema is expanded once.
+ */
+final class SchemaTraversal<N, P> {
+
+    static final int MAX_DEPTH = 64;
+
+    record Entry<P>(String label, P payload) {}
+
+    @FunctionalInterface
+    interface Expander<N, P> {
+        void expand(N node, Children<N, P> children);
+    }
+
+    interface Children<N, P> {
+        void emit(String label, P payload);
+
+        void descend(String label, N child);
+    }
+
+    private static final Object ON_PATH = new Object();
+
+    private record Expand<N>(N node, String prefix, int depth) {}
+
+    private record End<N>(N node, String prefix, int start, int cutsAtStart) {}
+
+    // Where the entries of a fully walked node sit in the entry list, and under which prefix
+    private static final class Span<P> {
+        private final int start;
+        private final int end;
+        private final int prefixLength;
+        private List<Entry<P>> relative;
+
+        private Span(int start, int end, int prefixLength) {
+            this.start = start;
+            this.end = end;
+            this.prefixLength = prefixLength;
+        }
+    }
+
+    private final Expander<N, P> expander;
+    private final List<Entry<P>> entries = new ArrayList<>();
+    // ON_PATH while a node's children are being walked, then its Span once it is complete
+    private final Map<N, Object> state = new IdentityHashMap<>();
+    private int cuts;
+
+    // Reused by every expansion: the expander is called synchronously and never re-entered
+    private final Deque<Object> stack = new ArrayDeque<>();
+    private final List<Object> pending = new ArrayList<>();
+    private final Collector collector = new Collector();
+
+    SchemaTraversal(Expander<N, P> expander) {
+        this.expander = expander;
+    }
+
+    /**
+     * Walks {@code root} and returns its entries, labelled with {@code prefix}. The returned list
+     * is a view that is only valid until the next call.
+     */
+    @SuppressWarnings("unchecked")
+    List<Entry<P>> walk(N root, String prefix) {
+        int from = entries.size();
+        stack.push(new Expand<>(root, prefix, 0));
+
+        while (!stack.isEmpty()) {
+            Object frame = stack.pop();
+            if (frame instanceof Entry<?> entry) {
+                entries.add((Entry<P>) entry);
+            } else if (frame instanceof End<?> end) {
+                // A node whose walk was cut short is not reused: elsewhere it may be complete
+                if (cuts == end.cutsAtStart()) {
+                    state.put((N) end.node(), new Span<P>(end.start(), entries.size(), end.prefix().length()));
+                } else {
+                    state.remove(end.node());
+                }
+            } else {
+                expand((Expand<N>) frame);
+            }
+        }
+        return entries.subList(from, entries.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expand(Expand<N> expand) {
+        N node = expand.node();
+        if (node == null) return;
+
+        Object known = state.get(node);
+        if (known instanceof Span<?> span) {
+            for (Entry<P> entry : relativeEntries((Span<P>) span)) {
+                entries.add(new Entry<>(expand.prefix() + entry.label(), entry.payload()));
+            }
+            return;
+        }
+        if (known == ON_PATH || expand.depth() > MAX_DEPTH) {
+            cuts++;
+            return;
+        }
+
+        collector.prefix = expand.prefix();
+        collector.depth = expand.depth();
+        collector.descended = false;
+        expander.expand(node, collector);
+
+        // Leaves are cheaper to expand again than to remember, and cannot be part of a cycle
+        if (collector.descended) {
+            state.put(node, ON_PATH);
+            stack.push(new End<>(node, expand.prefix(), entries.size(), cuts));
+        }
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            stack.push(pending.get(i));
+        }
+        pending.clear();
+    }
+
+    // Labels relative to the node are only built once the node is actually met a second time
+    private List<Entry<P>> relativeEntries(Span<P> span) {
+        if (span.relative == null) {
+            List<Entry<P>> relative = new ArrayList<>(span.end - span.start);
+            for (int i = span.start; i < span.end; i++) {
+                Entry<P> entry = entries.get(i);
+                relative.add(new Entry<>(entry.label().substring(span.prefixLength), entry.payload()));
+            }
+            span.relative = relative;
+        }
+        return span.relative;
+    }
+
+    private final class Collector implements Children<N, P> {
+
+        private String prefix;
+        private int depth;
+        private boolean descended;
+
+        @Override
+        public void emit(String label, P payload) {
+            pending.add(new Entry<>(prefix + label, payload));
+        }
+
+        @Override
+        public void descend(String label, N child) {
+            if (child == null) return;
+            pending.add(new Expand<>(child, prefix + label, depth + 1));
+            descended = true;
+        }
+    }
+}
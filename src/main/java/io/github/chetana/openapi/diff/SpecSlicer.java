@@ -0,0 +1,146 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.SpecVersion;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a spec restricted to some of its operations. Everything outside {@code paths}
+ * (components, security, extensions...) is shared with the source spec, or copied for an
+ * isolated slice, so a slice diffs each of its operations exactly as the whole spec would.
+ */
+final class SpecSlicer {
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private SpecSlicer() {
+    }
+
+    static OpenAPI slice(OpenAPI spec, Set<OperationKey> operations) {
+        OpenAPI slice = new OpenAPI(spec.getSpecVersion());
+        slice.setOpenapi(spec.getOpenapi());
+        slice.setInfo(spec.getInfo());
+        slice.setExternalDocs(spec.getExternalDocs());
+        slice.setServers(spec.getServers());
+        slice.setSecurity(spec.getSecurity());
+        slice.setTags(spec.getTags());
+        slice.setComponents(spec.getComponents());
+        slice.setExtensions(spec.getExtensions());
+        slice.setWebhooks(spec.getWebhooks());
+        slice.setJsonSchemaDialect(spec.getJsonSchemaDialect());
+
+        Paths paths = new Paths();
+        if (spec.getPaths() != null) {
+            spec.getPaths().forEach((path, pathItem) -> {
+                PathItem sliced = null;
+                for (Map.Entry<PathItem.HttpMethod, Operation> operation : pathItem.readOperationsMap().entrySet()) {
+                    if (!operations.contains(new OperationKey(path, operation.getKey()))) continue;
+                    if (sliced == null) sliced = copyWithoutOperations(pathItem);
+                    sliced.operation(operation.getKey(), operation.getValue());
+                }
+                if (sliced != null) paths.addPathItem(path, sliced);
+            });
+        }
+        slice.setPaths(paths);
+        return slice;
+    }
+
+    /**
+     * A slice that shares no object with {@code spec}: its operations and the components they
+     * reach, directly or transitively, are deep copies, and unreached components are left out.
+     * The diff engine mutates the schemas it resolves, so slices diffed in parallel need this.
+     */
+    static OpenAPI isolate(OpenAPI spec, Set<OperationKey> operations) {
+        OpenAPI slice = slice(spec, operations);
+        Components components = slice.getComponents();
+        slice.setComponents(null);
+        ObjectMapper mapper = spec.getSpecVersion() == SpecVersion.V31 ? Json31.mapper() : Json.mapper();
+        ObjectNode tree = mapper.valueToTree(slice);
+
+        if (components != null) {
+            ObjectNode reached = mapper.createObjectNode();
+            // Security requirements name their schemes instead of referencing them
+            if (components.getSecuritySchemes() != null) {
+                reached.set("securitySchemes", mapper.valueToTree(components.getSecuritySchemes()));
+            }
+            Set<String> seen = new HashSet<>();
+            Deque<JsonNode> pending = new ArrayDeque<>();
+            pending.push(tree);
+            while (!pending.isEmpty()) {
+                for (JsonNode ref : pending.pop().findValues("$ref")) {
+                    if (!ref.isTextual() || !seen.add(ref.asText())) continue;
+                    Object component = resolve(components, ref.asText());
+                    if (component == null) continue;
+                    String[] parts = ref.asText().substring(COMPONENTS_PREFIX.length()).split("/", 2);
+                    JsonNode copy = mapper.valueToTree(component);
+                    ObjectNode section = reached.has(parts[0]) ? (ObjectNode) reached.get(parts[0]) : reached.putObject(parts[0]);
+                    section.set(unescape(parts[1]), copy);
+                    pending.push(copy);
+                }
+            }
+            tree.set("components", reached);
+        }
+        try {
+            return mapper.treeToValue(tree, OpenAPI.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not copy a slice of the spec", e);
+        }
+    }
+
+    /** A deep copy of the whole spec. */
+    static OpenAPI copy(OpenAPI spec) {
+        ObjectMapper mapper = spec.getSpecVersion() == SpecVersion.V31 ? Json31.mapper() : Json.mapper();
+        return mapper.convertValue(spec, OpenAPI.class);
+    }
+
+    /** The component a local {@code #/components/...} reference points to, or null. */
+    static Object resolve(Components components, String ref) {
+        if (components == null || !ref.startsWith(COMPONENTS_PREFIX)) return null;
+        String[] parts = ref.substring(COMPONENTS_PREFIX.length()).split("/", 2);
+        if (parts.length != 2) return null;
+        Map<String, ?> section = switch (parts[0]) {
+            case "schemas" -> components.getSchemas();
+            case "responses" -> components.getResponses();
+            case "parameters" -> components.getParameters();
+            case "examples" -> components.getExamples();
+            case "requestBodies" -> components.getRequestBodies();
+            case "headers" -> components.getHeaders();
+            case "securitySchemes" -> components.getSecuritySchemes();
+            case "links" -> components.getLinks();
+            case "callbacks" -> components.getCallbacks();
+            case "pathItems" -> components.getPathItems();
+            default -> null;
+        };
+        return section != null ? section.get(unescape(parts[1])) : null;
+    }
+
+    private static String unescape(String name) {
+        return name.replace("~1", "/").replace("~0", "~");
+    }
+
+    private static PathItem copyWithoutOperations(PathItem pathItem) {
+        PathItem copy = new PathItem();
+        copy.setSummary(pathItem.getSummary());
+        copy.setDescription(pathItem.getDescription());
+        copy.setServers(pathItem.getServers());
+        copy.setParameters(pathItem.getParameters());
+        copy.set$ref(pathItem.get$ref());
+        copy.setExtensions(pathItem.getExtensions());
+        return copy;
+    }
+}
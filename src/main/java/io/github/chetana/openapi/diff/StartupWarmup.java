@@ -0,0 +1,81 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the compare pipeline once on a small embedded pair while the context starts, so that the
+ * first real compare does not pay for loading and linking swagger-parser, the diff engine and
+ * the report writers. It runs before the web server accepts requests, and during the training
+ * run that builds the class-data-sharing archive of the Docker image, whose archive then holds
+ * those classes too. The pair goes through the steps of a compare directly, so it leaves
+ * nothing in the caches, the metrics or the history.
+ */
+@Component
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final OpenApiDiffService diffService;
+    private final boolean enabled;
+
+    public StartupWarmup(OpenApiDiffService diffService, @Value("${openapi-diff.warmup.enabled:true}") boolean enabled) {
+        this.diffService = diffService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        try {
+            warm(diffService);
+            log.info("Compare pipeline warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // A failed warm-up only costs the first compare its class loading
+            log.warn("Compare pipeline warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    static void warm(OpenApiDiffService diffService) throws IOException {
+        String referenceContent = resource("reference.yaml");
+        String generatedContent = resource("generated.json");
+        ContractIngestor.scan(referenceContent, "reference");
+        ContractIngestor.scan(generatedContent, "generated");
+
+        OpenAPI reference = diffService.parseContents(referenceContent);
+        OpenAPI generated = diffService.parseContents(generatedContent);
+        diffService.normalizeAllDescriptions(reference);
+        diffService.normalizeAllDescriptions(generated);
+        OpenAPI filtered = diffService.filterGeneratedOpenApi(reference, generated, OperationIndex.of(generated), new ArrayList<>());
+        OperationFingerprints.of(filtered);
+
+        ChangedOpenApi diff = OpenApiCompare.fromSpecifications(reference, filtered);
+        DiffResult result = new DiffResult(diffService.extractMetadataChanges(diff), diffService.extractStructureChanges(diff),
+                diff.isDifferent(), List.of(), List.of());
+        for (ReportFormat format : ReportFormat.values()) {
+            format.renderer().render(result, Writer.nullWriter());
+        }
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = StartupWarmup.class.getResourceAsStream("/warmup/" + name)) {
+            if (in == null) throw new IOException("Missing warm-up contract " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.chetana.openapi.diff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns the strings a result repeats (paths, methods, field labels, detail names), so that
+ * every change of a result shares one instance of each. Scoped to a single extraction and not
+ * thread-safe: the strings go away with the result instead of living in the JVM string table.
+ */
+final class StringDictionary {
+
+    private final Map<String, String> strings = new HashMap<>();
+
+    String intern(String value) {
+        if (value == null) return null;
+        String known = strings.putIfAbsent(value, value);
+        return known != null ? known : value;
+    }
+}
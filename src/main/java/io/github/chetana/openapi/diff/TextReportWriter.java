@@ -0,0 +1,45 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.MetadataChange;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a {@link DiffResult} as a plain-text report for consoles and CI logs, one block per
+ * operation.
+ */
+final class TextReportWriter {
+
+    private TextReportWriter() {
+    }
+
+    static void write(DiffResult result, Writer out) throws IOException {
+        out.write(result.isDifferent() || !result.missingOperationIds().isEmpty() ? "DIFFERENT" : "MATCH");
+        out.write(" - " + result.structureChanges().size() + " structure change(s), "
+                + result.metadataChanges().size() + " metadata change(s)\n");
+        if (!result.missingOperationIds().isEmpty()) {
+            out.write("Missing operations: " + String.join(", ", result.missingOperationIds()) + "\n");
+        }
+        if (!result.duplicateOperationIds().isEmpty()) {
+            out.write("Duplicate operationIds in generated contract: " + String.join(", ", result.duplicateOperationIds()) + "\n");
+        }
+
+        for (OperationFindings operation : OperationFindings.of(result)) {
+            out.write("\n" + operation.method() + " " + operation.path() + (operation.isBreaking() ? "  [BREAKING]" : "") + "\n");
+            for (StructureChange change : operation.structureChanges()) {
+                out.write("  " + change.changeType() + "\n");
+                for (String detail : change.details()) {
+                    out.write("    " + detail + "\n");
+                }
+            }
+            for (MetadataChange change : operation.metadataChanges()) {
+                out.write("  " + change.field() + "\n");
+                out.write("    reference: " + change.designFirstValue() + "\n");
+                out.write("    generated: " + change.generatedValue() + "\n");
+            }
+        }
+    }
+}
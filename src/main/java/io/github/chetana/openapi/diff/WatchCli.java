@@ -0,0 +1,81 @@
+package io.github.chetana.openapi.diff;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Command line watch mode, started from the application jar:
+ * {@code java -jar app.jar watch <reference> <generated> [--format F] [--out reports-dir] [--debounce 300ms]}.
+ * Reference and generated are two contract files, or two directories of contracts paired by
+ * file name. Each pair is compared at start and again whenever one of its files is saved; the
+ * report of a pair with differences is printed, or written to {@code --out}. Runs until stopped.
+ */
+public final class WatchCli {
+
+    private WatchCli() {
+    }
+
+    public static int run(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: watch <reference> <generated> [--format json|csv|ndjson|text|markdown|html|junit] [--out reports-dir] [--debounce 300ms]");
+            return 2;
+        }
+        Path reference = Path.of(args[0]);
+        Path generated = Path.of(args[1]);
+        ReportFormat format = ReportFormat.TEXT;
+        Path out = null;
+        Duration debounce = Duration.ofMillis(300);
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format" -> format = ReportFormat.of(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--debounce" -> debounce = DurationStyle.detectAndParse(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out != null) Files.createDirectories(out);
+
+        OpenApiDiffService diffService = new OpenApiDiffService();
+        ContractWatcher watcher = new ContractWatcher(new CompareScheduler(diffService), debounce);
+        ReportFormat reportFormat = format;
+        Path reportDir = out;
+        watcher.watch(reference, generated, update -> print(diffService, update, reportFormat, reportDir));
+        System.out.println("Watching " + reference + " against " + generated + " (Ctrl+C to stop)");
+
+        new CountDownLatch(1).await();
+        return 0;
+    }
+
+    private static void print(OpenApiDiffService diffService, ContractWatcher.Update update, ReportFormat format, Path out) {
+        String status = update.failed() ? "FAILED  " + update.error()
+                : BatchDiffService.isClean(update.result()) ? "MATCH"
+                : "DIFF    " + update.result().structureChanges().size() + " structure / "
+                + update.result().metadataChanges().size() + " metadata / "
+                + update.result().missingOperationIds().size() + " missing";
+        System.out.printf("%s %-40s %6d ms  %s%n", LocalTime.now().truncatedTo(ChronoUnit.SECONDS), update.name(), update.durationMillis(), status);
+        if (update.failed() || BatchDiffService.isClean(update.result())) return;
+
+        try {
+            if (out != null) {
+                Path file = out.resolve(update.name().replaceAll("[^A-Za-z0-9._-]", "_") + "." + format.extension());
+                try (OutputStream stream = Files.newOutputStream(file)) {
+                    diffService.export(update.result(), format, stream);
+                }
+            } else {
+                diffService.export(update.result(), format, System.out);
+                System.out.println();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.chetana.openapi.diff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchCliTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void invalidArgumentsExitWithUsageCode() throws Exception {
+        Path manifest = manifest("orders", "orders");
+        for (List<String> options : List.of(
+                List.of("--out"),
+                List.of("--threads"),
+                List.of("--format"),
+                List.of("--threads", "many"),
+                List.of("--threads", "0"),
+                List.of("--format", "pdf"),
+                List.of("--verbose"))) {
+            String[] args = Stream.concat(Stream.of(manifest.toString()), options.stream()).toArray(String[]::new);
+            assertEquals(2, BatchCli.run(args), String.join(" ", options));
+        }
+    }
+
+    @Test
+    void unreadableManifestExitsWithFailureCode() throws Exception {
+        assertEquals(2, BatchCli.run(new String[]{dir.resolve("missing.yaml").toString()}));
+    }
+
+    @Test
+    void collidingNamesGetDistinctReports() throws Exception {
+        Path reports = dir.resolve("reports");
+        Path manifest = manifest("a/b", "a_b", "A_B", "a_b");
+        assertEquals(0, BatchCli.run(new String[]{manifest.toString(), "--format", "markdown", "--out", reports.toString()}));
+        try (Stream<Path> files = Files.list(reports)) {
+            assertEquals(List.of("A_B-3.md", "a_b-2.md", "a_b-4.md", "a_b.md"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    private Path manifest(String... names) throws Exception {
+        Files.writeString(dir.resolve("orders.json"), Contracts.json(Contracts.orders()));
+        StringBuilder yaml = new StringBuilder("pairs:\n");
+        for (String name : names) {
+            yaml.append("  - name: \"").append(name).append("\"\n")
+                    .append("    reference: orders.json\n")
+                    .append("    generated: orders.json\n");
+        }
+        return Files.writeString(dir.resolve("manifest.yaml"), yaml);
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompareMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DiffShardPool shardPool = new DiffShardPool(4, 200);
+    private final OpenApiDiffService service = new OpenApiDiffService(new ReferenceContractCache(), new RemoteContractFetcher(),
+            new CompareMetrics(registry, Duration.ofMinutes(1)), new IncrementalDiffCache(), new ContractIngestor(), shardPool, new DiffHistoryStore());
+
+    @AfterEach
+    void shutdown() {
+        shardPool.shutdown();
+    }
+
+    @Test
+    void allocationOfShardsIsCounted() throws Exception {
+        ObjectNode generated = Contracts.large(300);
+        Contracts.properties(generated, "Money").putObject("amount").put("type", "integer");
+        String reference = Contracts.json(Contracts.large(300));
+        String content = Contracts.json(generated);
+        // Parse the reference once, so that both measured compares do the same work
+        service.compare(reference, content, new CompareOptions(false, false));
+
+        double single = allocatedBy(reference, content, new CompareOptions(false, false));
+        double sharded = allocatedBy(reference, content, new CompareOptions(false, true));
+        // Counting the compare thread alone, a sharded compare would report a small fraction
+        assertTrue(sharded > single / 2, "sharded " + sharded + " bytes, single-threaded " + single + " bytes");
+    }
+
+    private double allocatedBy(String reference, String generated, CompareOptions options) throws Exception {
+        DistributionSummary allocated = registry.get("openapi.diff.compare.allocated").summary();
+        double before = allocated.totalAmount();
+        long count = allocated.count();
+        service.compare(reference, generated, options);
+        assertEquals(count + 1, allocated.count());
+        return allocated.totalAmount() - before;
+    }
+}
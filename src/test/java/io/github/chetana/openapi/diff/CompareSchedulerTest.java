@@ -0,0 +1,73 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** A compare above the memory budget waits for the others and runs alone; only one above the heap is refused. */
+class CompareSchedulerTest {
+
+    private static final CompareOptions OPTIONS = new CompareOptions(false, false);
+    private static final String TINY = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"t\",\"version\":\"1\"},\"paths\":{}}";
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private CompareScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        released.countDown();
+        if (scheduler != null) scheduler.shutdown();
+    }
+
+    @Test
+    void overBudgetCompareRunsAlone() throws Exception {
+        // 1 MB budget at 1 KB per character: the orders pair is over it, the tiny pair is not
+        scheduler = new CompareScheduler(service, new CompareMetrics(), 2, 4, 1, 1024);
+        String contract = Contracts.json(Contracts.orders());
+        assertTrue(scheduler.estimateBytes(contract, contract) > 1024 * 1024);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompareScheduler.Ticket small = scheduler.submit(TINY, TINY, OPTIONS, phase -> {
+            started.countDown();
+            await();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // A free slot, but not enough budget next to the running compare
+        CompareScheduler.Ticket large = scheduler.submit(contract, contract, OPTIONS, CompareListener.NONE);
+        assertEquals(1, scheduler.stats().running());
+        assertEquals(1, scheduler.stats().queued());
+
+        released.countDown();
+        small.result().get(10, TimeUnit.SECONDS);
+        assertFalse(large.result().get(30, TimeUnit.SECONDS).isDifferent());
+        assertEquals(0, scheduler.stats().rejected());
+    }
+
+    @Test
+    void compareAboveTheHeapIsRefused() {
+        scheduler = new CompareScheduler(service, new CompareMetrics(), 2, 4, 1, Integer.MAX_VALUE);
+        String contract = Contracts.json(Contracts.orders());
+        CompareRejectedException error = assertThrows(CompareRejectedException.class,
+                () -> scheduler.submit(contract, contract, OPTIONS, CompareListener.NONE));
+        assertTrue(error.getMessage().contains("too large"), error.getMessage());
+        assertEquals(1, scheduler.stats().rejected());
+    }
+
+    private void await() {
+        try {
+            released.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
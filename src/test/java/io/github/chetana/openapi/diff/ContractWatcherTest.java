@@ -0,0 +1,82 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Watch compares go through the scheduler, and one it rejected runs again on the next write. */
+class ContractWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+    // One compare at a time and no queue: a second compare is rejected while the first runs
+    private final CompareScheduler scheduler = new CompareScheduler(service, new CompareMetrics(), 1, 0, 0, 128);
+    private final ContractWatcher watcher = new ContractWatcher(scheduler, Duration.ofMillis(50));
+    private final BlockingQueue<ContractWatcher.Update> updates = new LinkedBlockingQueue<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() throws IOException {
+        released.countDown();
+        watcher.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void comparesThroughTheScheduler() throws Exception {
+        String contract = Contracts.json(Contracts.orders());
+        Path reference = Files.writeString(dir.resolve("reference.json"), contract);
+        Path generated = Files.writeString(dir.resolve("generated.json"), contract);
+
+        // Holds the only compare slot until released
+        CountDownLatch started = new CountDownLatch(1);
+        CompareScheduler.Ticket blocker = scheduler.submit(contract, contract, new CompareOptions(false, false), phase -> {
+            started.countDown();
+            await();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        watcher.watch(reference, generated, updates::add);
+        ContractWatcher.Update rejected = next();
+        assertTrue(rejected.failed());
+        assertTrue(rejected.error().contains("Too many compares"), rejected.error());
+
+        released.countDown();
+        blocker.result().get(10, TimeUnit.SECONDS);
+        // Same content again: the rejected pair was not taken as compared
+        Files.writeString(generated, contract);
+        ContractWatcher.Update compared = next();
+        assertFalse(compared.failed(), compared.error());
+        assertFalse(compared.result().isDifferent());
+    }
+
+    private ContractWatcher.Update next() throws InterruptedException {
+        ContractWatcher.Update update = updates.poll(10, TimeUnit.SECONDS);
+        assertNotNull(update, "no compare within 10 s");
+        return update;
+    }
+
+    private void await() {
+        try {
+            released.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Contracts for the compare tests, built as JSON trees so that a test can copy one and mutate
+ * exactly what it is about. Components are shared between operations, so that a change to one
+ * of them shows up under several operations.
+ */
+final class Contracts {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] METHODS = {"get", "put", "delete"};
+
+    private Contracts() {
+    }
+
+    /** A small orders API: five operations over {@code Order}, {@code Customer} and the {@code Address} and {@code Money} they share. */
+    static ObjectNode orders() {
+        ObjectNode root = root("Orders API");
+        ObjectNode paths = root.putObject("paths");
+
+        ObjectNode list = operation(paths.putObject("/orders"), "get", "listOrders", "Lists the orders.");
+        list.putArray("parameters").addObject().put("name", "status").put("in", "query").put("required", false)
+                .put("description", "Only orders in this status.").putObject("schema").put("type", "string");
+        ObjectNode listOk = response(list, "200", "The orders.");
+        ObjectNode listSchema = listOk.putObject("content").putObject("application/json").putObject("schema");
+        listSchema.put("type", "array").putObject("items").put("$ref", "#/components/schemas/Order");
+
+        ObjectNode create = operation((ObjectNode) paths.get("/orders"), "post", "createOrder", "Creates an order.");
+        create.putObject("requestBody").put("required", true).putObject("content").putObject("application/json")
+                .putObject("schema").put("$ref", "#/components/schemas/Order");
+        jsonResponse(create, "201", "The created order.", "Order");
+        response(create, "400", "Invalid order.");
+
+        ObjectNode byId = paths.putObject("/orders/{id}");
+        ObjectNode get = operation(byId, "get", "getOrder", "Reads an order.");
+        pathParameter(get, "id");
+        jsonResponse(get, "200", "The order.", "Order");
+        response(get, "404", "No such order.");
+        ObjectNode delete = operation(byId, "delete", "deleteOrder", "Deletes an order.");
+        pathParameter(delete, "id");
+        response(delete, "204", "Deleted.");
+
+        ObjectNode customer = operation(paths.putObject("/customers/{id}"), "get", "getCustomer", "Reads a customer.");
+        pathParameter(customer, "id");
+        jsonResponse(customer, "200", "The customer.", "Customer");
+
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        ObjectNode order = object(schemas, "Order", "An order.");
+        property(order, "id", "string", "Identifier of the order.");
+        ref(order, "total", "Money");
+        ref(order, "shipTo", "Address");
+        ObjectNode lines = ((ObjectNode) order.get("properties")).putObject("lines");
+        lines.put("type", "array").putObject("items").put("$ref", "#/components/schemas/OrderLine");
+        ObjectNode line = object(schemas, "OrderLine", "A line of an order.");
+        property(line, "sku", "string", "Article reference.");
+        ref(line, "price", "Money");
+        ObjectNode customerSchema = object(schemas, "Customer", "A customer.");
+        property(customerSchema, "id", "string", "Identifier of the customer.");
+        property(customerSchema, "name", "string", "Full name.");
+        ref(customerSchema, "address", "Address");
+        ObjectNode address = object(schemas, "Address", "A postal address.");
+        property(address, "street", "string", "Street and number.");
+        property(address, "city", "string", "City.");
+        ObjectNode money = object(schemas, "Money", "An amount of money.");
+        property(money, "amount", "number", "Amount in the currency.");
+        property(money, "currency", "string", "ISO 4217 code.");
+        return root;
+    }
+
+    /**
+     * {@code operations} operations over {@code operations / 8} models, every model referencing
+     * the shared {@code Money} schema.
+     */
+    static ObjectNode large(int operations) {
+        ObjectNode root = root("Large API");
+        ObjectNode paths = root.putObject("paths");
+        int models = Math.max(1, operations / 8);
+        for (int i = 0; i < operations; i++) {
+            String path = "/resources" + (i / METHODS.length) + "/{id}";
+            ObjectNode pathItem = paths.has(path) ? (ObjectNode) paths.get(path) : paths.putObject(path);
+            ObjectNode op = operation(pathItem, METHODS[i % METHODS.length], "op" + i, "Handles resource " + i + ".");
+            pathParameter(op, "id");
+            op.withArray("parameters").addObject().put("name", "filter").put("in", "query").put("required", false)
+                    .put("description", "Filter expression.").putObject("schema").put("type", "string");
+            jsonResponse(op, "200", "OK", "Model" + (i % models));
+            response(op, "404", "Not found.");
+        }
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        ObjectNode money = object(schemas, "Money", "An amount of money.");
+        property(money, "amount", "number", "Amount in the currency.");
+        property(money, "currency", "string", "ISO 4217 code.");
+        for (int m = 0; m < models; m++) {
+            ObjectNode model = object(schemas, "Model" + m, "Model " + m + ".");
+            property(model, "id", "string", "Identifier of model " + m + ".");
+            ref(model, "price", "Money");
+        }
+        return root;
+    }
+
+    static ObjectNode operation(ObjectNode spec, String path, String method) {
+        return (ObjectNode) spec.get("paths").get(path).get(method);
+    }
+
+    static ObjectNode schema(ObjectNode spec, String name) {
+        return (ObjectNode) spec.get("components").get("schemas").get(name);
+    }
+
+    static ObjectNode properties(ObjectNode spec, String schema) {
+        return (ObjectNode) schema(spec, schema).get("properties");
+    }
+
+    /** Renames path {@code from} to {@code to}, keeping its position in the document. */
+    static void renamePath(ObjectNode spec, String from, String to) {
+        ObjectNode paths = (ObjectNode) spec.get("paths");
+        ObjectNode renamed = MAPPER.createObjectNode();
+        paths.fields().forEachRemaining(entry -> renamed.set(entry.getKey().equals(from) ? to : entry.getKey(), entry.getValue()));
+        spec.set("paths", renamed);
+    }
+
+    static String json(ObjectNode spec) {
+        return spec.toString();
+    }
+
+    private static ObjectNode root(String title) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("openapi", "3.0.1");
+        root.putObject("info").put("title", title).put("version", "1");
+        return root;
+    }
+
+    private static ObjectNode operation(ObjectNode pathItem, String method, String operationId, String summary) {
+        ObjectNode op = pathItem.putObject(method);
+        op.put("operationId", operationId);
+        op.put("summary", summary);
+        op.putObject("responses");
+        return op;
+    }
+
+    private static void pathParameter(ObjectNode op, String name) {
+        ArrayNode parameters = op.withArray("parameters");
+        parameters.addObject().put("name", name).put("in", "path").put("required", true)
+                .put("description", "Identifier.").putObject("schema").put("type", "string");
+    }
+
+    private static ObjectNode response(ObjectNode op, String code, String description) {
+        return ((ObjectNode) op.get("responses")).putObject(code).put("description", description);
+    }
+
+    private static void jsonResponse(ObjectNode op, String code, String description, String schema) {
+        response(op, code, description).putObject("content").putObject("application/json")
+                .putObject("schema").put("$ref", "#/components/schemas/" + schema);
+    }
+
+    private static ObjectNode object(ObjectNode schemas, String name, String description) {
+        ObjectNode schema = schemas.putObject(name);
+        schema.put("type", "object").put("description", description).putObject("properties");
+        return schema;
+    }
+
+    private static void property(ObjectNode schema, String name, String type, String description) {
+        ((ObjectNode) schema.get("properties")).putObject(name).put("type", type).put("description", description);
+    }
+
+    private static void ref(ObjectNode schema, String name, String target) {
+        ((ObjectNode) schema.get("properties")).putObject(name).put("$ref", "#/components/schemas/" + target);
+    }
+}
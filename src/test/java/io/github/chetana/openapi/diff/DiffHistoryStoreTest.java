@@ -0,0 +1,154 @@
+package io.github.chetana.openapi.diff;
+
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.github.chetana.openapi.diff.OpenApiDiffService.StructureChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiffHistoryStoreTest {
+
+    private static final String REFERENCE = "a".repeat(64);
+    private static final String GENERATED = "b".repeat(64);
+
+    @TempDir
+    Path dir;
+
+    private final List<DiffHistoryStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        stores.forEach(DiffHistoryStore::close);
+    }
+
+    @Test
+    void servesRunsOfTheCurrentVersion() {
+        DiffHistoryStore store = open(Duration.ZERO);
+        DiffResult result = result(true);
+        store.record("Orders API", REFERENCE, GENERATED, null, result);
+        assertEquals(result, store.find(REFERENCE, GENERATED));
+        assertNull(store.find(REFERENCE, REFERENCE));
+    }
+
+    @Test
+    void runsOfAnotherVersionAreNotServed() throws Exception {
+        DiffHistoryStore store = open(Duration.ZERO);
+        store.record("Orders API", REFERENCE, GENERATED, null, result(true));
+        execute("UPDATE diff_run SET result_version = " + (DiffHistoryStore.RESULT_VERSION - 1));
+        assertNull(store.find(REFERENCE, GENERATED));
+
+        // The pair is computed again and stored next to the old run
+        DiffResult recomputed = result(false);
+        store.record("Orders API", REFERENCE, GENERATED, null, recomputed);
+        assertEquals(recomputed, store.find(REFERENCE, GENERATED));
+        assertEquals(2, store.runs("Orders API", 10).size());
+    }
+
+    @Test
+    void upgradesUnversionedDatabase() throws Exception {
+        // The schema runs were stored in before they carried a version
+        execute("""
+                CREATE TABLE diff_run (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    service VARCHAR(512) NOT NULL,
+                    reference_hash CHAR(64) NOT NULL,
+                    generated_hash CHAR(64) NOT NULL,
+                    generated_location VARCHAR(2048),
+                    compared_at TIMESTAMP NOT NULL,
+                    is_different BOOLEAN NOT NULL,
+                    structure_changes INT NOT NULL,
+                    breaking_changes INT NOT NULL,
+                    metadata_changes INT NOT NULL,
+                    result CLOB NOT NULL,
+                    CONSTRAINT diff_run_inputs UNIQUE (reference_hash, generated_hash)
+                )""");
+        execute("INSERT INTO diff_run (service, reference_hash, generated_hash, compared_at, is_different, structure_changes, "
+                + "breaking_changes, metadata_changes, result) VALUES ('Orders API', '" + REFERENCE + "', '" + GENERATED
+                + "', CURRENT_TIMESTAMP, FALSE, 0, 0, 0, '{}')");
+
+        DiffHistoryStore store = open(Duration.ZERO);
+        assertNull(store.find(REFERENCE, GENERATED));
+        DiffResult result = result(true);
+        store.record("Orders API", REFERENCE, GENERATED, null, result);
+        assertEquals(result, store.find(REFERENCE, GENERATED));
+        assertEquals(2, store.runs("Orders API", 10).size());
+    }
+
+    @Test
+    void prunesRunsOlderThanRetention() throws Exception {
+        DiffHistoryStore store = open(Duration.ofDays(30));
+        store.record("Orders API", REFERENCE, GENERATED, null, result(true));
+        store.record("Orders API", REFERENCE, REFERENCE, null, result(false));
+        execute("UPDATE diff_run SET compared_at = DATEADD('DAY', -31, compared_at) WHERE generated_hash = '" + GENERATED + "'");
+
+        assertEquals(1, store.prune());
+        assertEquals(1, store.runs("Orders API", 10).size());
+        assertNull(store.find(REFERENCE, GENERATED));
+        // Its indexed changes went with it
+        assertEquals(List.of(), store.changes("Orders API", null, null, null, true, 10));
+    }
+
+    @Test
+    void keepsEverythingWithoutRetention() throws Exception {
+        DiffHistoryStore store = open(Duration.ZERO);
+        store.record("Orders API", REFERENCE, GENERATED, null, result(true));
+        execute("UPDATE diff_run SET compared_at = DATEADD('YEAR', -10, compared_at)");
+        assertEquals(0, store.prune());
+        assertEquals(1, store.runs("Orders API", 10).size());
+    }
+
+    @Test
+    void keepsRunsInMemoryWithoutDirectory() {
+        DiffHistoryStore store = new DiffHistoryStore(true, "", Duration.ZERO);
+        stores.add(store);
+        DiffResult result = result(true);
+        store.record("Orders API", REFERENCE, GENERATED, null, result);
+        assertEquals(result, store.find(REFERENCE, GENERATED));
+    }
+
+    @Test
+    void refusesRelativeDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> new DiffHistoryStore(true, "data", Duration.ZERO));
+    }
+
+    @Test
+    void disabledStoreKeepsNothing() {
+        DiffHistoryStore store = new DiffHistoryStore(false, "data", Duration.ZERO);
+        store.record("Orders API", REFERENCE, GENERATED, null, result(true));
+        assertFalse(store.isEnabled());
+        assertNull(store.find(REFERENCE, GENERATED));
+    }
+
+    private DiffHistoryStore open(Duration retention) {
+        DiffHistoryStore store = new DiffHistoryStore(true, dir.toString(), retention);
+        stores.add(store);
+        return store;
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("diff-history").toAbsolutePath(), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static DiffResult result(boolean breaking) {
+        List<StructureChange> changes = breaking
+                ? List.of(new StructureChange("DELETE", "/orders/{id}", "REMOVED", ChangeDetails.ENDPOINT_MISSING, true))
+                : List.of();
+        return new DiffResult(List.of(), changes, breaking, List.of(), List.of());
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A fail-fast compare answers "is it breaking" with less work than a full compare: its verdict
+ * must be the full compare's, whatever the number of findings it stops at.
+ */
+class FailFastCompareTest {
+
+    private static final CompareOptions FULL = new CompareOptions(false, false);
+    private static final int[] MAX_FINDINGS = {1, 2, 100};
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+
+    @Test
+    void identicalContracts() throws Exception {
+        assertVerdict(false, spec -> {});
+    }
+
+    @Test
+    void descriptionsOnly() throws Exception {
+        assertVerdict(false, spec -> {
+            Contracts.operation(spec, "/orders", "get").put("summary", "Lists all the orders.");
+            Contracts.schema(spec, "Address").put("description", "Where an order is shipped.");
+        });
+    }
+
+    @Test
+    void compatibleAdditions() throws Exception {
+        assertVerdict(false, spec -> {
+            Contracts.operation(spec, "/orders/{id}", "get").withArray("parameters").addObject()
+                    .put("name", "expand").put("in", "query").put("required", false).putObject("schema").put("type", "string");
+            Contracts.operation(spec, "/customers/{id}", "get").withObject("/responses").putObject("404").put("description", "No such customer.");
+        });
+    }
+
+    @Test
+    void missingOperation() throws Exception {
+        assertVerdict(true, spec -> ((ObjectNode) spec.get("paths").get("/orders/{id}")).remove("delete"));
+    }
+
+    @Test
+    void parameterBecomesRequired() throws Exception {
+        assertVerdict(true, spec -> ((ObjectNode) Contracts.operation(spec, "/orders", "get").get("parameters").get(0)).put("required", true));
+    }
+
+    @Test
+    void responseCodeRemoved() throws Exception {
+        assertVerdict(true, spec -> ((ObjectNode) Contracts.operation(spec, "/orders/{id}", "get").get("responses")).remove("404"));
+    }
+
+    @Test
+    void breakingOnlyThroughAComponent() throws Exception {
+        // No operation signature moves: only the schema Order and OrderLine share changes
+        assertVerdict(true, spec -> Contracts.properties(spec, "Money").putObject("amount").put("type", "string"));
+    }
+
+    @Test
+    void differentGlobalsCompatible() throws Exception {
+        assertVerdict(false, spec -> {
+            spec.put("openapi", "3.0.3");
+            spec.withObject("/components").putObject("securitySchemes").putObject("bearer").put("type", "http").put("scheme", "bearer");
+        });
+    }
+
+    @Test
+    void differentGlobalsBreaking() throws Exception {
+        assertVerdict(true, spec -> {
+            spec.put("openapi", "3.0.3");
+            spec.withObject("/components").putObject("securitySchemes").putObject("bearer").put("type", "http").put("scheme", "bearer");
+            Contracts.properties(spec, "Money").putObject("amount").put("type", "string");
+        });
+    }
+
+    @Test
+    void manyBreakingChanges() throws Exception {
+        assertVerdict(true, spec -> {
+            ((ObjectNode) spec.get("paths").get("/orders/{id}")).remove("delete");
+            ((ObjectNode) Contracts.operation(spec, "/orders", "get").get("parameters").get(0)).put("required", true);
+            ((ObjectNode) Contracts.operation(spec, "/orders/{id}", "get").get("responses")).remove("404");
+            Contracts.properties(spec, "Address").putObject("city").put("type", "integer");
+        });
+    }
+
+    private void assertVerdict(boolean breaking, Consumer<ObjectNode> edit) throws Exception {
+        String reference = Contracts.json(Contracts.orders());
+        ObjectNode generated = Contracts.orders();
+        edit.accept(generated);
+        String content = Contracts.json(generated);
+
+        DiffResult full = service.compare(reference, content, FULL);
+        assertEquals(breaking, full.isBreaking(), "full compare");
+        for (int maxFindings : MAX_FINDINGS) {
+            DiffResult gate = service.compare(reference, content, new CompareOptions(false, false, false, maxFindings));
+            assertEquals(full.isBreaking(), gate.isBreaking(), "failFast=" + maxFindings);
+            // A gate's isDifferent is its breaking verdict, not the full compare's isDifferent
+            assertEquals(gate.isBreaking(), gate.isDifferent(), "failFast=" + maxFindings);
+            assertTrue(gate.metadataChanges().isEmpty());
+            assertTrue(gate.structureChanges().size() <= maxFindings);
+            assertTrue(gate.structureChanges().stream().allMatch(OpenApiDiffService.StructureChange::isBreaking));
+            assertEquals(full.missingOperationIds(), gate.missingOperationIds());
+            if (!breaking) assertFalse(gate.isDifferent());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * An incremental compare reuses the results of the previous compare of the same pair: over a
+ * sequence of edits to the generated contract, each of its results must be the one a full
+ * compare gives.
+ */
+class IncrementalCompareTest {
+
+    private static final CompareOptions INCREMENTAL = new CompareOptions(true, false);
+    private static final CompareOptions FULL = new CompareOptions(false, false);
+
+    // Each edit applies on top of the previous ones
+    private static final List<Consumer<ObjectNode>> EDITS = List.of(
+            spec -> {},
+            spec -> Contracts.operation(spec, "/orders", "get").put("summary", "Lists   all the orders."),
+            spec -> ((ObjectNode) spec.get("paths").get("/orders/{id}")).remove("delete"),
+            spec -> Contracts.properties(spec, "Address").putObject("zip").put("type", "string"),
+            spec -> Contracts.properties(spec, "Address").putObject("city").put("type", "integer"),
+            spec -> Contracts.operation(spec, "/orders", "get").withArray("parameters").get(0).withObject("/schema").put("type", "integer"),
+            spec -> Contracts.properties(spec, "Money").putObject("amount").put("type", "integer"),
+            spec -> renamePathParameter(spec, "/orders/{id}", "orderId"),
+            spec -> Contracts.operation(spec, "/customers/{id}", "get").withObject("/responses").putObject("404").put("description", "No such customer."),
+            spec -> ((ObjectNode) spec.get("paths").get("/orders")).remove("post"),
+            spec -> Contracts.properties(spec, "Address").remove("zip"));
+
+    private final OpenApiDiffService service = new OpenApiDiffService();
+    private HttpServer server;
+    private volatile String served;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v3/api-docs", exchange -> {
+            byte[] body = served.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void matchesFullCompareAcrossEdits() throws Exception {
+        String reference = Contracts.json(Contracts.orders());
+        ObjectNode generated = Contracts.orders();
+        for (int step = 0; step < EDITS.size(); step++) {
+            EDITS.get(step).accept(generated);
+            String content = Contracts.json(generated);
+            assertEquals(service.compare(reference, content, FULL), service.compare(reference, content, INCREMENTAL), "after edit " + step);
+        }
+    }
+
+    @Test
+    void matchesFullCompareWhenEditsAreUndone() throws Exception {
+        String reference = Contracts.json(Contracts.orders());
+        ObjectNode generated = Contracts.orders();
+        for (int step = 0; step < EDITS.size(); step++) {
+            EDITS.get(step).accept(generated);
+            String content = Contracts.json(generated);
+            service.compare(reference, content, INCREMENTAL);
+            // Back to the untouched contract, then to the edited one again
+            String untouched = Contracts.json(Contracts.orders());
+            assertEquals(service.compare(reference, untouched, FULL), service.compare(reference, untouched, INCREMENTAL), "undoing edit " + step);
+            assertEquals(service.compare(reference, content, FULL), service.compare(reference, content, INCREMENTAL), "redoing edit " + step);
+        }
+    }
+
+    @Test
+    void matchesFullCompareWhenTheReferenceChanges() throws Exception {
+        ObjectNode reference = Contracts.orders();
+        ObjectNode generated = Contracts.orders();
+        Contracts.properties(generated, "Address").putObject("zip").put("type", "string");
+        String content = Contracts.json(generated);
+        service.compare(Contracts.json(reference), content, INCREMENTAL);
+
+        Contracts.properties(reference, "Money").putObject("amount").put("type", "integer");
+        renamePathParameter(reference, "/orders/{id}", "orderId");
+        String changed = Contracts.json(reference);
+        assertEquals(service.compare(changed, content, FULL), service.compare(changed, content, INCREMENTAL));
+    }
+
+    @Test
+    void urlAndInlineSourcesKeepSeparateSnapshots() throws Exception {
+        String reference = Contracts.json(Contracts.orders());
+        String url = "http://localhost:" + server.getAddress().getPort() + "/v3/api-docs";
+        ObjectNode remote = Contracts.orders();
+        ObjectNode inline = Contracts.orders();
+        for (int step = 0; step < EDITS.size(); step++) {
+            // The two sources drift apart: the URL takes every edit, the pasted contract every other one
+            EDITS.get(step).accept(remote);
+            if (step % 2 == 0) EDITS.get(step).accept(inline);
+            served = Contracts.json(remote);
+            String content = Contracts.json(inline);
+
+            DiffResult fromUrl = service.compare(reference, url, INCREMENTAL);
+            assertEquals(service.compare(reference, served, FULL), fromUrl, "URL source after edit " + step);
+            assertEquals(service.compare(reference, url, FULL), fromUrl, "URL source after edit " + step);
+            assertEquals(service.compare(reference, content, FULL), service.compare(reference, content, INCREMENTAL), "inline source after edit " + step);
+        }
+    }
+
+    @Test
+    void editsAreVisible() throws Exception {
+        // Guards the sequence itself: an edit the compare does not see would make the tests above vacuous
+        String reference = Contracts.json(Contracts.orders());
+        ObjectNode generated = Contracts.orders();
+        EDITS.get(0).accept(generated);
+        assertFalse(service.compare(reference, Contracts.json(generated), FULL).isDifferent());
+        for (int step = 1; step < EDITS.size(); step++) {
+            String before = Contracts.json(generated);
+            EDITS.get(step).accept(generated);
+            DiffResult previous = service.compare(reference, before, FULL);
+            DiffResult current = service.compare(reference, Contracts.json(generated), FULL);
+            assertTrue(current.isDifferent(), "edit " + step);
+            assertTrue(!previous.equals(current), "edit " + step + " changes nothing");
+        }
+    }
+
+    private static void renamePathParameter(ObjectNode spec, String path, String name) {
+        String renamed = path.replace("{id}", "{" + name + "}");
+        ObjectNode pathItem = (ObjectNode) spec.get("paths").get(path);
+        pathItem.fields().forEachRemaining(operation -> ((ObjectNode) operation.getValue().get("parameters").get(0)).put("name", name));
+        Contracts.renamePath(spec, path, renamed);
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.chetana.openapi.diff;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The fetcher against a local HTTP server that can stall, send too much, or answer 304. */
+class RemoteContractFetcherTest {
+
+    // Short enough for the stall tests; the others allow for a cold HTTP client
+    private static final Duration STALL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    // If-None-Match of each request received, null when absent
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/spec", exchange -> respond(exchange, 200, "{\"openapi\":\"3.0.1\"}", -1));
+        server.createContext("/tagged", exchange -> {
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(condition);
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "{\"tagged\":true}", -1);
+            }
+        });
+        server.createContext("/large", exchange -> {
+            conditions.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            respond(exchange, 200, "x".repeat(300_000), -1);
+        });
+        // A 304 to a request that had nothing to revalidate, as a shared cache in between may send
+        AtomicInteger proxied = new AtomicInteger();
+        server.createContext("/proxied", exchange -> {
+            conditions.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            if (proxied.getAndIncrement() == 0) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "{\"proxied\":true}", -1);
+            }
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "not found", -1));
+        server.createContext("/declared-too-large", exchange -> respond(exchange, 200, "x".repeat(1024 * 1024 + 1), -1));
+        // No Content-Length: the cap is only noticed while reading
+        server.createContext("/chunked-too-large", exchange -> respond(exchange, 200, "x".repeat(1024 * 1024 + 1), 0));
+        server.createContext("/stalled-headers", exchange -> {
+            await();
+            respond(exchange, 200, "{}", -1);
+        });
+        server.createContext("/stalled-body", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            OutputStream out = exchange.getResponseBody();
+            out.write("{\"openapi\":".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            await();
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        released.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void fetchesBody() throws Exception {
+        assertEquals("{\"openapi\":\"3.0.1\"}", fetcher(128).fetch(url("/spec")));
+    }
+
+    @Test
+    void failsOnErrorStatus() {
+        IOException error = assertThrows(IOException.class, () -> fetcher(128).fetch(url("/missing")));
+        assertTrue(error.getMessage().contains("HTTP 404"), error.getMessage());
+    }
+
+    @Test
+    void timesOutWhenHeadersStall() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(HttpTimeoutException.class, () -> stallingFetcher().fetch(url("/stalled-headers")));
+        });
+    }
+
+    @Test
+    void timesOutWhenBodyStalls() {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(HttpTimeoutException.class, () -> stallingFetcher().fetch(url("/stalled-body")));
+        });
+    }
+
+    @Test
+    void refusesDeclaredLengthAboveCap() {
+        IOException error = assertThrows(IOException.class, () -> fetcher(128).fetch(url("/declared-too-large")));
+        assertTrue(error.getMessage().contains("above the"), error.getMessage());
+    }
+
+    @Test
+    void stopsReadingAboveCap() {
+        IOException error = assertThrows(IOException.class, () -> fetcher(128).fetch(url("/chunked-too-large")));
+        assertTrue(error.getMessage().contains("exceeds the"), error.getMessage());
+    }
+
+    @Test
+    void revalidatesWithETag() throws Exception {
+        RemoteContractFetcher fetcher = fetcher(128);
+        assertEquals("{\"tagged\":true}", fetcher.fetch(url("/tagged")));
+        assertEquals("{\"tagged\":true}", fetcher.fetch(url("/tagged")));
+        assertNull(conditions.get(0));
+        assertEquals("\"v1\"", conditions.get(1));
+    }
+
+    @Test
+    void refetchesWhenNotModifiedWithoutCachedBody() throws Exception {
+        assertEquals("{\"proxied\":true}", fetcher(128).fetch(url("/proxied")));
+        assertEquals(Arrays.asList(null, null), conditions);
+    }
+
+    @Test
+    void revalidatesFromDiskCache() throws Exception {
+        assertEquals("{\"tagged\":true}", diskFetcher().fetch(url("/tagged")));
+        // A new fetcher, as after a restart, knows the ETag from disk only
+        assertEquals("{\"tagged\":true}", diskFetcher().fetch(url("/tagged")));
+        assertEquals(Arrays.asList(null, "\"v1\""), conditions);
+    }
+
+    @Test
+    void ignoresUnreadableDiskEntry() throws Exception {
+        diskFetcher().fetch(url("/tagged"));
+        Path entry = cacheDir.resolve(ReferenceContractCache.hash(url("/tagged")) + ".cached");
+        Files.writeString(entry, url("/tagged") + "\n");
+        assertEquals("{\"tagged\":true}", diskFetcher().fetch(url("/tagged")));
+        assertEquals(Arrays.asList(null, null), conditions);
+    }
+
+    @Test
+    void memoryCacheIsBoundedBySize() throws Exception {
+        // 1 MB holds one 300 000 char body (600 000 bytes) but not two
+        RemoteContractFetcher fetcher = fetcher(1);
+        fetcher.fetch(url("/large"));
+        fetcher.fetch(url("/large"));
+        fetcher.fetch(url("/large/other"));
+        fetcher.fetch(url("/large"));
+        assertEquals(Arrays.asList(null, "\"v1\"", null, null), conditions);
+    }
+
+    private RemoteContractFetcher fetcher(long cacheMaxMb) {
+        return new RemoteContractFetcher(Duration.ofSeconds(2), READ_TIMEOUT, 1, 64, cacheMaxMb, "");
+    }
+
+    private RemoteContractFetcher stallingFetcher() {
+        return new RemoteContractFetcher(Duration.ofSeconds(2), STALL_TIMEOUT, 1, 64, 128, "");
+    }
+
+    private RemoteContractFetcher diskFetcher() {
+        return new RemoteContractFetcher(Duration.ofSeconds(2), READ_TIMEOUT, 1, 64, 128, cacheDir.toString());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void await() {
+        try {
+            released.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, long length) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, length < 0 ? bytes.length : length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        } catch (IOException e) {
+            // The client hung up on a body it refused
+        }
+    }
+}
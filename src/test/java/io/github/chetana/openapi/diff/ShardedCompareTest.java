@@ -0,0 +1,102 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A contract above {@code min-operations} is diffed as operation shards: the merged result must
+ * be the single-threaded one, changes in the same order included.
+ */
+class ShardedCompareTest {
+
+    private static final int OPERATIONS = 300;
+
+    private final DiffShardPool shardPool = new DiffShardPool(4, 200);
+    private final OpenApiDiffService service = new OpenApiDiffService(new ReferenceContractCache(), new RemoteContractFetcher(),
+            new CompareMetrics(), new IncrementalDiffCache(), new ContractIngestor(), shardPool, new DiffHistoryStore());
+
+    @AfterEach
+    void shutdown() {
+        shardPool.shutdown();
+    }
+
+    @Test
+    void largeContractIsSharded() {
+        assertTrue(shardPool.shardCount(OPERATIONS) > 1);
+    }
+
+    @Test
+    void identicalContracts() throws Exception {
+        String reference = Contracts.json(Contracts.large(OPERATIONS));
+        DiffResult sharded = assertSameResults(reference, reference);
+        assertFalse(sharded.isDifferent());
+    }
+
+    @Test
+    void sharedComponentChanged() throws Exception {
+        ObjectNode generated = Contracts.large(OPERATIONS);
+        // Money is referenced by every model, hence by every operation and every shard
+        Contracts.properties(generated, "Money").putObject("amount").put("type", "integer");
+        Contracts.properties(generated, "Money").putObject("rounding").put("type", "string");
+        Contracts.schema(generated, "Money").put("description", "An   amount,\n  in a currency.");
+        DiffResult sharded = assertSameResults(Contracts.json(Contracts.large(OPERATIONS)), Contracts.json(generated));
+        assertEquals(OPERATIONS, sharded.structureChanges().size());
+    }
+
+    @Test
+    void incompatibleChangesAcrossShards() throws Exception {
+        ObjectNode generated = Contracts.large(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i += 17) {
+            ObjectNode op = Contracts.operation(generated, "/resources" + (i / 3) + "/{id}", new String[]{"get", "put", "delete"}[i % 3]);
+            switch (i % 4) {
+                case 0 -> ((ObjectNode) op.get("parameters").get(1)).put("required", true);
+                case 1 -> ((ObjectNode) op.get("responses")).remove("404");
+                case 2 -> op.put("summary", "Reworded   summary of " + i + ".");
+                default -> ((ObjectNode) op.get("parameters").get(1)).put("description", "Another   filter.");
+            }
+        }
+        Contracts.properties(generated, "Model3").putObject("id").put("type", "integer");
+        // Missing from the generated contract, at both ends of the reference
+        ((ObjectNode) generated.get("paths").get("/resources0/{id}")).remove("get");
+        ((ObjectNode) generated.get("paths").get("/resources99/{id}")).remove("delete");
+        // Not in the reference: filtered out before the diff
+        ObjectNode extra = Contracts.operation(generated, "/resources1/{id}", "get").deepCopy();
+        ((ObjectNode) generated.get("paths")).putObject("/extra").set("get", extra.put("operationId", "extra"));
+
+        DiffResult sharded = assertSameResults(Contracts.json(Contracts.large(OPERATIONS)), Contracts.json(generated));
+        assertTrue(sharded.isBreaking());
+        assertEquals(2, sharded.missingOperationIds().size());
+        assertFalse(sharded.metadataChanges().isEmpty());
+    }
+
+    @Test
+    void incrementalShardedCompare() throws Exception {
+        String reference = Contracts.json(Contracts.large(OPERATIONS));
+        ObjectNode generated = Contracts.large(OPERATIONS);
+        Contracts.properties(generated, "Model5").putObject("added").put("type", "string");
+        String first = Contracts.json(generated);
+        assertEquals(service.compare(reference, first, new CompareOptions(false, false)),
+                service.compare(reference, first, new CompareOptions(true, true)));
+
+        Contracts.properties(generated, "Money").putObject("amount").put("type", "integer");
+        String second = Contracts.json(generated);
+        assertEquals(service.compare(reference, second, new CompareOptions(false, false)),
+                service.compare(reference, second, new CompareOptions(true, true)));
+    }
+
+    private DiffResult assertSameResults(String reference, String generated) throws Exception {
+        DiffResult single = service.compare(reference, generated, new CompareOptions(false, false));
+        DiffResult sharded = service.compare(reference, generated, new CompareOptions(false, true));
+        assertEquals(single.structureChanges(), sharded.structureChanges());
+        assertEquals(single.metadataChanges(), sharded.metadataChanges());
+        assertEquals(single, sharded);
+        return sharded;
+    }
+}
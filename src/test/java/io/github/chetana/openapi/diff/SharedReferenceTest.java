@@ -0,0 +1,132 @@
+package io.github.chetana.openapi.diff;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.chetana.openapi.diff.OpenApiDiffService.CompareOptions;
+import io.github.chetana.openapi.diff.OpenApiDiffService.DiffResult;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openapitools.openapidiff.core.OpenApiCompare;
+import org.openapitools.openapidiff.core.model.ChangedOpenApi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every compare of a reference gets the same cached model: it must diff as a freshly parsed one,
+ * and no compare may leave a trace in it. The reference has what the diff engine rewrites: root
+ * security, allOf and anyOf.
+ */
+class SharedReferenceTest {
+
+    private final ReferenceContractCache cache = new ReferenceContractCache();
+    private final DiffShardPool shardPool = new DiffShardPool(4, 2);
+    private final OpenApiDiffService service = new OpenApiDiffService(cache, new RemoteContractFetcher(),
+            new CompareMetrics(), new IncrementalDiffCache(), new ContractIngestor(), shardPool, new DiffHistoryStore());
+
+    private final String reference = Contracts.json(reference());
+    private final String generated = Contracts.json(generated());
+
+    @AfterEach
+    void shutdown() {
+        shardPool.shutdown();
+    }
+
+    @Test
+    void cachedReferenceDiffsAsAFreshOne() throws Exception {
+        DiffResult expected = uncached();
+        assertTrue(expected.isDifferent());
+        for (int i = 0; i < 2; i++) {
+            DiffResult result = service.compare(reference, generated, new CompareOptions(false, false));
+            assertEquals(expected.structureChanges(), result.structureChanges());
+            assertEquals(expected.metadataChanges(), result.metadataChanges());
+        }
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void comparesLeaveTheCachedModelUntouched() throws Exception {
+        // The model as the loader left it, before the engine has seen it
+        List<String> loaded = new ArrayList<>();
+        service.compare(reference, generated, new CompareOptions(false, false), phase -> {
+            if (phase == ComparePhase.DIFF) loaded.add(Json.pretty(cached()));
+        });
+        OpenAPI cached = cached();
+        String before = loaded.get(0);
+        assertFalse(before.contains("allOf") || before.contains("anyOf"), before);
+        assertEquals(before, Json.pretty(cached));
+
+        service.compare(reference, generated, new CompareOptions(true, false));
+        service.compare(reference, generated, new CompareOptions(false, true));
+        service.compare(reference, generated, new CompareOptions(false, false, true));
+        service.compare(reference, generated, new CompareOptions(false, false, false, 100));
+        service.compare(reference, reference, new CompareOptions(false, false));
+
+        assertSame(cached, cached());
+        assertEquals(before, Json.pretty(cached));
+    }
+
+    // The engine on models parsed for this compare alone, as the service did before sharing them
+    private DiffResult uncached() {
+        OpenAPI pm = service.parseContents(reference);
+        OpenAPI gen = service.parseContents(generated);
+        service.normalizeAllDescriptions(pm);
+        service.normalizeAllDescriptions(gen);
+        OpenAPI filtered = service.filterGeneratedOpenApi(pm, gen, OperationIndex.of(gen), new ArrayList<>());
+        ChangedOpenApi diff = OpenApiCompare.fromSpecifications(pm, filtered);
+        return new DiffResult(service.extractMetadataChanges(diff), service.extractStructureChanges(diff),
+                diff.isDifferent(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    private OpenAPI cached() {
+        return cache.get(reference, content -> {
+            throw new AssertionError("reference should be cached");
+        });
+    }
+
+    private static ObjectNode reference() {
+        ObjectNode spec = Contracts.orders();
+        spec.putArray("security").addObject().putArray("apiKey");
+        spec.withObject("/components").putObject("securitySchemes").putObject("apiKey")
+                .put("type", "apiKey").put("in", "header").put("name", "X-Api-Key");
+        ObjectNode schemas = (ObjectNode) spec.get("components").get("schemas");
+        // A customer is a contact plus its own fields, and ships to an address or a pickup point
+        ObjectNode contact = schemas.putObject("Contact").put("type", "object");
+        contact.putObject("properties").putObject("email").put("type", "string").put("description", "Email address.");
+        ObjectNode customer = schemas.putObject("Customer").put("description", "A customer.");
+        customer.putArray("allOf").add(refTo("Contact")).add(customerFields());
+        ObjectNode pickup = schemas.putObject("PickupPoint").put("type", "object");
+        pickup.putObject("properties").putObject("code").put("type", "string");
+        ((ObjectNode) Contracts.properties(spec, "Order").get("shipTo")).removeAll()
+                .putArray("anyOf").add(refTo("Address")).add(refTo("PickupPoint"));
+        return spec;
+    }
+
+    private static ObjectNode generated() {
+        ObjectNode spec = reference();
+        // Changes inside an allOf part and in an anyOf part, and one operation dropping the root security
+        ((ObjectNode) Contracts.properties(spec, "Contact").get("email")).put("type", "integer");
+        ((ObjectNode) Contracts.properties(spec, "PickupPoint")).putObject("opensAt").put("type", "string");
+        Contracts.operation(spec, "/orders/{id}", "delete").putArray("security");
+        return spec;
+    }
+
+    private static ObjectNode customerFields() {
+        ObjectNode fields = JsonNodeFactory.instance.objectNode().put("type", "object");
+        ObjectNode properties = fields.putObject("properties");
+        properties.putObject("id").put("type", "string").put("description", "Identifier of the customer.");
+        properties.putObject("address").put("$ref", "#/components/schemas/Address");
+        return fields;
+    }
+
+    private static ObjectNode refTo(String schema) {
+        return JsonNodeFactory.instance.objectNode().put("$ref", "#/components/schemas/" + schema);
+    }
+}